@@ -0,0 +1,106 @@
+package keal.ec.rest.client.benchmarks;
+
+import feign.RequestTemplate;
+import feign.Response;
+import keal.ec.rest.client.auth.Authentication;
+import keal.ec.rest.client.auth.BasicAuth;
+import keal.ec.rest.client.auth.JWTAuth;
+import keal.ec.rest.client.auth.JWTClient;
+import keal.ec.rest.client.auth.JWTToken;
+import keal.ec.rest.client.auth.JWTTokenProvider;
+import keal.ec.rest.client.auth.NoAuthentication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost each {@link Authentication} adds to every request, applying it to a fresh request template. The token
+ * provider logs in once during setup against a stub {@link JWTClient}, so its benchmark measures the steady state.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthenticationBenchmark {
+
+    @Param({"none", "basic", "jwtToken", "jwtAuth", "jwtTokenProvider"})
+    private String authentication;
+
+    private Authentication instance;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        switch (authentication) {
+            case "none":
+                instance = new NoAuthentication();
+                break;
+            case "basic":
+                instance = BasicAuth.get().username("benchmark").password("secret");
+                break;
+            case "jwtToken":
+                instance = JWTToken.build(token());
+                break;
+            case "jwtAuth":
+                instance = JWTAuth.get().bodyUserApiKey("benchmark", "601f1889667efaebb33b8c12572835da3f027f78");
+                break;
+            case "jwtTokenProvider":
+                instance = JWTTokenProvider.get(new StubJWTClient());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown authentication: " + authentication);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (instance instanceof JWTTokenProvider) {
+            ((JWTTokenProvider) instance).close();
+        }
+    }
+
+    @Benchmark
+    public RequestTemplate apply() {
+        RequestTemplate template = new RequestTemplate();
+        instance.apply(template);
+        return template;
+    }
+
+    private static String token() {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()) + TimeUnit.DAYS.toSeconds(1);
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(("{\"sub\":\"benchmark\",\"exp\":" + exp + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        return "Bearer " + header + '.' + claims + '.';
+    }
+
+    private static final class StubJWTClient implements JWTClient {
+
+        @Override
+        public Response auth() {
+            throw new UnsupportedOperationException("the stub returns the token directly");
+        }
+
+        @Override
+        public Optional<String> getToken() {
+            return Optional.of(token());
+        }
+    }
+}
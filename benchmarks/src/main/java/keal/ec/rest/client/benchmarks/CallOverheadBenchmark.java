@@ -0,0 +1,82 @@
+package keal.ec.rest.client.benchmarks;
+
+import feign.hystrix.FallbackFactory;
+import keal.ec.rest.client.OrderAPIClient;
+import keal.ec.rest.client.RestClient;
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call cost of the request pipeline against an in-process {@link StubServer}: encoding, the OkHttp exchange
+ * over a pooled loopback connection, decoding and, for the clients with a fallback, the Hystrix command. The
+ * difference between the plain client and the others is the cost of Hystrix.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CallOverheadBenchmark {
+
+    private static final int FALLBACK_TIMEOUT = 10_000;
+
+    private StubServer server;
+    private OrderAPIClient plain;
+    private OrderAPIClient withFallback;
+    private OrderAPIClient withFallbackFactory;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        server = StubServer.start();
+        OrderAPIClient fallback = input -> Orders.fallbackResponse();
+        FallbackFactory<OrderAPIClient> fallbackFactory = cause -> fallback;
+        plain = client().build();
+        withFallback = client().build(fallback);
+        withFallbackFactory = client().build(fallbackFactory);
+        order = Orders.order();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public OrderResponse plain() {
+        return plain.process(order);
+    }
+
+    @Benchmark
+    public OrderResponse withFallback() {
+        return withFallback.process(order);
+    }
+
+    @Benchmark
+    public OrderResponse withFallbackFactory() {
+        return withFallbackFactory.process(order);
+    }
+
+    private RestClient client() {
+        return RestClient.get()
+                .apiClass(OrderAPIClient.class)
+                .url(server.url())
+                .fallBackTimeout(FALLBACK_TIMEOUT);
+    }
+}
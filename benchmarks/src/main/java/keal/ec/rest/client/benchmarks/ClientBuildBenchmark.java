@@ -0,0 +1,49 @@
+package keal.ec.rest.client.benchmarks;
+
+import feign.hystrix.FallbackFactory;
+import keal.ec.rest.client.OrderAPIClient;
+import keal.ec.rest.client.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link RestClient#build()}: parsing the api interface and assembling the Feign proxy, with and without
+ * the Hystrix wrapping of a fallback. Nothing is sent.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClientBuildBenchmark {
+
+    private static final String URL = "http://localhost:8080/api/";
+
+    private final OrderAPIClient fallback = order -> Orders.fallbackResponse();
+    private final FallbackFactory<OrderAPIClient> fallbackFactory = cause -> fallback;
+
+    @Benchmark
+    public OrderAPIClient plain() {
+        return RestClient.get().apiClass(OrderAPIClient.class).url(URL).build();
+    }
+
+    @Benchmark
+    public OrderAPIClient withFallback() {
+        return RestClient.get().apiClass(OrderAPIClient.class).url(URL).build(fallback);
+    }
+
+    @Benchmark
+    public OrderAPIClient withFallbackFactory() {
+        return RestClient.get().apiClass(OrderAPIClient.class).url(URL).build(fallbackFactory);
+    }
+}
@@ -0,0 +1,82 @@
+package keal.ec.rest.client.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.codec.Decoder;
+import feign.codec.Encoder;
+import keal.ec.rest.client.codec.CodecRegistry;
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the shared codecs on the {@link Order} request and {@link OrderResponse} response models, next to
+ * plain Jackson as the baseline.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CodecBenchmark {
+
+    private static final Map<String, Collection<String>> HEADERS =
+            Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+
+    private ObjectMapper mapper;
+    private Encoder encoder;
+    private Decoder decoder;
+    private Order order;
+
+    @Setup
+    public void setUp() {
+        mapper = CodecRegistry.defaultMapper();
+        encoder = CodecRegistry.encoder(mapper);
+        decoder = CodecRegistry.decoder(mapper);
+        order = Orders.order();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        RequestTemplate template = new RequestTemplate();
+        encoder.encode(order, Order.class, template);
+        return template.body();
+    }
+
+    @Benchmark
+    public Object decode() throws IOException {
+        Response response = Response.builder()
+                .status(200)
+                .headers(HEADERS)
+                .body(StubServer.ORDER_RESPONSE)
+                .build();
+        return decoder.decode(response, OrderResponse.class);
+    }
+
+    @Benchmark
+    public byte[] jacksonWrite() throws IOException {
+        return mapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public OrderResponse jacksonRead() throws IOException {
+        return mapper.readValue(StubServer.ORDER_RESPONSE, OrderResponse.class);
+    }
+}
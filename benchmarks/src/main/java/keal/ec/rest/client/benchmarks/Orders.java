@@ -0,0 +1,29 @@
+package keal.ec.rest.client.benchmarks;
+
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+
+/**
+ * Payloads shared by the benchmarks.
+ */
+final class Orders {
+
+    private Orders() {
+    }
+
+    static Order order() {
+        return new Order()
+                .partnerId(10)
+                .serviceId(20)
+                .partnerServiceId(30)
+                .partnerAcctId(40)
+                .acctCountry("EC")
+                .acctBankCode("0010")
+                .acctType("SAVINGS")
+                .acctNumber("2200114455");
+    }
+
+    static OrderResponse fallbackResponse() {
+        return new OrderResponse().returnCode(-1).returnCodeDesc("fallback");
+    }
+}
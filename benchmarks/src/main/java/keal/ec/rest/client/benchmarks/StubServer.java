@@ -0,0 +1,64 @@
+package keal.ec.rest.client.benchmarks;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * In-process HTTP stub answering every request with a fixed JSON order response, so the benchmarks measure the
+ * client side of a call and not a server or the network.
+ */
+final class StubServer implements AutoCloseable {
+
+    static final byte[] ORDER_RESPONSE = ("{\"returnCode\":1,\"returnCodeDesc\":\"Todo Bien :)\",\"partnerId\":10,"
+            + "\"partnerTradeName\":\"Partner\",\"serviceId\":20,\"serviceName\":\"Collections\","
+            + "\"partnerServiceId\":30,\"description\":\"Benchmark order\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    private StubServer(HttpServer server, ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    static StubServer start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 128);
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        server.setExecutor(executor);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                byte[] buffer = new byte[8192];
+                while (body.read(buffer) >= 0) { // NOPMD drain the request body
+                }
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, ORDER_RESPONSE.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(ORDER_RESPONSE);
+            }
+        });
+        server.start();
+        return new StubServer(server, executor);
+    }
+
+    /**
+     * @return base URL of the stub, ending with {@code /api/} like the services the clients call
+     */
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/";
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,78 @@
+package keal.ec.rest.client.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service time of a stub endpoint, in milliseconds, parsed from specifications like {@code fixed:3000},
+ * {@code uniform:1:5}, {@code exponential:2} (mean) or {@code lognormal:2:0.5} (median and sigma, for a long tail).
+ */
+abstract class LatencyDistribution {
+
+    /**
+     * @return next service time in nanoseconds
+     */
+    abstract long nextNanos();
+
+    static LatencyDistribution parse(String specification) {
+        String[] parts = specification.split(":");
+        try {
+            switch (parts[0]) {
+                case "fixed":
+                    return fixed(millis(parts[1]));
+                case "uniform":
+                    return uniform(millis(parts[1]), millis(parts[2]));
+                case "exponential":
+                    return exponential(millis(parts[1]));
+                case "lognormal":
+                    return lognormal(millis(parts[1]), Double.parseDouble(parts[2]));
+                default:
+                    break;
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) { // NOPMD reported below
+        }
+        throw new IllegalArgumentException("Invalid latency distribution: " + specification
+                + ", expected fixed:<ms>, uniform:<min ms>:<max ms>, exponential:<mean ms>"
+                + " or lognormal:<median ms>:<sigma>");
+    }
+
+    private static long millis(String value) {
+        return (long) (Double.parseDouble(value) * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static LatencyDistribution fixed(long nanos) {
+        return new LatencyDistribution() {
+            @Override
+            long nextNanos() {
+                return nanos;
+            }
+        };
+    }
+
+    private static LatencyDistribution uniform(long min, long max) {
+        return new LatencyDistribution() {
+            @Override
+            long nextNanos() {
+                return min >= max ? min : ThreadLocalRandom.current().nextLong(min, max);
+            }
+        };
+    }
+
+    private static LatencyDistribution exponential(long mean) {
+        return new LatencyDistribution() {
+            @Override
+            long nextNanos() {
+                return (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * mean);
+            }
+        };
+    }
+
+    private static LatencyDistribution lognormal(long median, double sigma) {
+        return new LatencyDistribution() {
+            @Override
+            long nextNanos() {
+                return (long) (median * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+            }
+        };
+    }
+}
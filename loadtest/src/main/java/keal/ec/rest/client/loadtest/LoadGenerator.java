@@ -0,0 +1,109 @@
+package keal.ec.rest.client.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are scheduled at a constant arrival rate whatever the latency of the previous
+ * ones, and each latency is measured from the time the request was due, not from when a worker got to it. A stalled
+ * client therefore shows up in the percentiles instead of silently lowering the rate, which avoids coordinated
+ * omission.
+ * <p>
+ * Requests wait for a worker in a bounded queue; when it is full they are counted as dropped, the load generator
+ * itself being the bottleneck.
+ */
+final class LoadGenerator {
+
+    private static final int QUEUED_PER_WORKER = 64;
+
+    private final int rate;
+    private final int workers;
+
+    /**
+     * @param rate    requests per second
+     * @param workers threads calling the client, the maximum of concurrent calls
+     */
+    LoadGenerator(int rate, int workers) {
+        if (rate < 1 || workers < 1) {
+            throw new IllegalArgumentException("rate and workers must be positive: " + rate + ", " + workers);
+        }
+        this.rate = rate;
+        this.workers = workers;
+    }
+
+    Result run(Callable<?> call, long duration, TimeUnit unit) throws InterruptedException {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(workers * QUEUED_PER_WORKER), runnable -> {
+            Thread thread = new Thread(runnable, "load-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.prestartAllCoreThreads();
+        Recorder latencies = new Recorder(3);
+        LongAdder failed = new LongAdder();
+        long sent = 0;
+        long dropped = 0;
+        long start = System.nanoTime();
+        long end = start + unit.toNanos(duration);
+        while (true) {
+            long intended = start + sent * TimeUnit.SECONDS.toNanos(1) / rate;
+            if (intended >= end) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            sent++;
+            try {
+                pool.execute(() -> {
+                    try {
+                        call.call();
+                    } catch (Exception e) {
+                        failed.increment();
+                    } finally {
+                        latencies.recordValue((System.nanoTime() - intended) / 1000);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                dropped++;
+            }
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.MINUTES);
+        long elapsed = System.nanoTime() - start;
+        return new Result(latencies.getIntervalHistogram(), sent, dropped, failed.sum(), elapsed);
+    }
+
+    /**
+     * Outcome of a run, latencies in microseconds.
+     */
+    static final class Result {
+
+        final Histogram latencies;
+        final long sent;
+        final long dropped;
+        final long failed;
+        final long elapsedNanos;
+
+        private Result(Histogram latencies, long sent, long dropped, long failed, long elapsedNanos) {
+            this.latencies = latencies;
+            this.sent = sent;
+            this.dropped = dropped;
+            this.failed = failed;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        double throughput() {
+            return latencies.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package keal.ec.rest.client.loadtest;
+
+import keal.ec.rest.client.OrderAPIClient;
+import keal.ec.rest.client.OrderSlowAPIClient;
+import keal.ec.rest.client.RestClient;
+import keal.ec.rest.client.metrics.InMemoryMetricsRegistry;
+import keal.ec.rest.client.metrics.MetricsRegistry;
+import keal.ec.rest.client.transport.TransportSettings;
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives a {@link RestClient}-built client at a constant arrival rate and reports the latency percentiles, the
+ * outcome of the calls and the garbage collection during the measured run. By default the client calls an
+ * in-process {@link StubServer}, so the results show the limits of the client: connection pool, Hystrix thread
+ * pool and allocation rate.
+ */
+public final class LoadTest {
+
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = new LoadTestOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(1);
+            return;
+        }
+        StubServer stub = null;
+        String url = options.string("url", null);
+        if (url == null) {
+            stub = StubServer.start(
+                    LatencyDistribution.parse(options.string("fast-latency", "fixed:0")),
+                    LatencyDistribution.parse(options.string("slow-latency", "fixed:3000")),
+                    options.integer("stub-threads", 2 * Runtime.getRuntime().availableProcessors()));
+            url = stub.url();
+        }
+        try {
+            run(options, url);
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    private static void run(LoadTestOptions options, String url) throws InterruptedException, IOException {
+        InMemoryMetricsRegistry metrics = InMemoryMetricsRegistry.get();
+        boolean slow = "slow".equals(options.string("endpoint", "fast"));
+        Class<?> apiClass = slow ? OrderSlowAPIClient.class : OrderAPIClient.class;
+        Callable<OrderResponse> call = call(options, url, slow, metrics);
+        int rate = options.integer("rate", 5000);
+        LoadGenerator generator = new LoadGenerator(rate, options.integer("workers", 512));
+
+        System.out.printf("Calling %s%s at %d req/s%n", url, slow ? "swloworders/" : "order/", rate);
+        generator.run(call, options.integer("warmup", 10), TimeUnit.SECONDS);
+        Map<String, InMemoryMetricsRegistry.MethodMetrics> methods = metrics.metrics(apiClass.getSimpleName());
+        long[] before = counters(methods);
+        long[] gcBefore = gc();
+        LoadGenerator.Result result = generator.run(call, options.integer("duration", 30), TimeUnit.SECONDS);
+        long[] gcAfter = gc();
+        long[] after = counters(methods);
+
+        report(result);
+        System.out.printf("HTTP requests %d, 2xx %d, I/O failures %d%n",
+                after[0] - before[0], after[1] - before[1], after[2] - before[2]);
+        System.out.printf("Hystrix fallbacks %d, timeouts %d, rejections %d, short circuits %d%n",
+                after[3] - before[3], after[4] - before[4], after[5] - before[5], after[6] - before[6]);
+        System.out.printf("GC collections %d, time %d ms%n", gcAfter[0] - gcBefore[0], gcAfter[1] - gcBefore[1]);
+
+        String histogram = options.string("histogram", null);
+        if (histogram != null) {
+            try (PrintStream out = new PrintStream(new FileOutputStream(histogram), false, "UTF-8")) {
+                result.latencies.outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+    }
+
+    private static Callable<OrderResponse> call(LoadTestOptions options, String url, boolean slow,
+                                                MetricsRegistry metrics) {
+        boolean fallback = !"plain".equals(options.string("client", "fallback"));
+        RestClient builder = RestClient.get()
+                .apiClass(slow ? OrderSlowAPIClient.class : OrderAPIClient.class)
+                .url(url)
+                .transport(TransportSettings.get().maxIdleConnections(options.integer("idle-connections", 5)))
+                .metrics(metrics);
+        if (fallback) {
+            builder.fallBackTimeout(options.integer("timeout", 1000))
+                    .maxConcurrentRequests(options.integer("max-concurrent-requests", 10));
+        }
+        OrderResponse fallbackResponse = new OrderResponse().returnCode(-1).returnCodeDesc("fallback");
+        Order order = new Order().partnerId(10).serviceId(20).acctCountry("EC").acctNumber("2200114455");
+        if (slow) {
+            OrderSlowAPIClient client = fallback
+                    ? builder.build((OrderSlowAPIClient) input -> fallbackResponse) : builder.build();
+            return () -> client.process(order);
+        }
+        OrderAPIClient client = fallback ? builder.build((OrderAPIClient) input -> fallbackResponse) : builder.build();
+        return () -> client.process(order);
+    }
+
+    private static void report(LoadGenerator.Result result) {
+        Histogram latencies = result.latencies;
+        System.out.printf("Sent %d, completed %d, failed %d, dropped %d, %.0f req/s%n", result.sent,
+                latencies.getTotalCount(), result.failed, result.dropped, result.throughput());
+        System.out.printf("Latency ms: p50 %.3f, p90 %.3f, p99 %.3f, p99.9 %.3f, p99.99 %.3f, max %.3f%n",
+                millis(latencies, 50), millis(latencies, 90), millis(latencies, 99), millis(latencies, 99.9),
+                millis(latencies, 99.99), latencies.getMaxValue() / MICROS_PER_MILLI);
+    }
+
+    private static double millis(Histogram latencies, double percentile) {
+        return latencies.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    private static long[] counters(Map<String, InMemoryMetricsRegistry.MethodMetrics> methods) {
+        long[] counters = new long[7];
+        for (InMemoryMetricsRegistry.MethodMetrics method : methods.values()) {
+            counters[0] += method.requests();
+            for (int status = 200; status < 300; status++) {
+                counters[1] += method.responses(status);
+            }
+            counters[2] += method.failures();
+            counters[3] += method.events(MetricsRegistry.Event.FALLBACK);
+            counters[4] += method.events(MetricsRegistry.Event.TIMEOUT);
+            counters[5] += method.events(MetricsRegistry.Event.REJECTED);
+            counters[6] += method.events(MetricsRegistry.Event.SHORT_CIRCUIT);
+        }
+        return counters;
+    }
+
+    private static long[] gc() {
+        long[] gc = new long[2];
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gc[0] += Math.max(0, collector.getCollectionCount());
+            gc[1] += Math.max(0, collector.getCollectionTime());
+        }
+        return gc;
+    }
+}
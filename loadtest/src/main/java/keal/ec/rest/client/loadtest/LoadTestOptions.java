@@ -0,0 +1,52 @@
+package keal.ec.rest.client.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line of the load test, {@code --name=value} arguments.
+ */
+final class LoadTestOptions {
+
+    static final String USAGE = "Options (defaults in brackets):\n"
+            + "  --rate=<req/s>                  arrival rate [5000]\n"
+            + "  --duration=<s>                  measured run [30]\n"
+            + "  --warmup=<s>                    unmeasured run before [10]\n"
+            + "  --workers=<n>                   calling threads, max concurrent calls [512]\n"
+            + "  --endpoint=fast|slow            /order/ or /swloworders/ [fast]\n"
+            + "  --client=plain|fallback         client without or with Hystrix fallback [fallback]\n"
+            + "  --timeout=<ms>                  Hystrix timeout of the fallback client [1000]\n"
+            + "  --max-concurrent-requests=<n>   Hystrix thread pool size of the fallback client [10]\n"
+            + "  --idle-connections=<n>          OkHttp idle connections kept [5]\n"
+            + "  --fast-latency=<distribution>   service time of the fast endpoint [fixed:0]\n"
+            + "  --slow-latency=<distribution>   service time of the slow endpoint [fixed:3000]\n"
+            + "  --stub-threads=<n>              stub handler threads [2 x cores]\n"
+            + "  --url=<base url>                call this service instead of the local stub\n"
+            + "  --histogram=<file>              write the full percentile distribution to the file\n"
+            + "Distributions in ms: fixed:<ms>, uniform:<min>:<max>, exponential:<mean>, lognormal:<median>:<sigma>";
+
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadTestOptions(String... args) {
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid argument: " + arg);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    String string(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int integer(String name, int defaultValue) {
+        String value = values.get(name);
+        try {
+            return value == null ? defaultValue : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid --" + name + ": " + value, e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package keal.ec.rest.client.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process stand-in for the {@code OrderController} of the tests: {@code /api/order/} and the slow
+ * {@code /api/swloworders/} answer with a fixed order response after a service time drawn from their
+ * {@link LatencyDistribution}. Delayed responses are completed by a scheduler instead of sleeping handler threads,
+ * so the stub can hold thousands of slow requests at once.
+ */
+final class StubServer implements AutoCloseable {
+
+    private static final byte[] ORDER_RESPONSE = ("{\"returnCode\":1,\"returnCodeDesc\":\"Todo Bien :)\","
+            + "\"partnerId\":10,\"partnerTradeName\":\"Partner\",\"serviceId\":20,\"serviceName\":\"Collections\","
+            + "\"partnerServiceId\":30,\"description\":\"Load test order\"}").getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final ScheduledExecutorService responses;
+
+    private StubServer(HttpServer server, ExecutorService handlers, ScheduledExecutorService responses) {
+        this.server = server;
+        this.handlers = handlers;
+        this.responses = responses;
+    }
+
+    static StubServer start(LatencyDistribution fast, LatencyDistribution slow, int threads) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        ExecutorService handlers = Executors.newFixedThreadPool(threads, daemon("stub-handler"));
+        ScheduledExecutorService responses = Executors.newScheduledThreadPool(2, daemon("stub-response"));
+        StubServer stub = new StubServer(server, handlers, responses);
+        server.setExecutor(handlers);
+        server.createContext("/api/order/", exchange -> stub.handle(exchange, fast));
+        server.createContext("/api/swloworders/", exchange -> stub.handle(exchange, slow));
+        server.start();
+        return stub;
+    }
+
+    /**
+     * @return base URL of the stub endpoints
+     */
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api/";
+    }
+
+    private void handle(HttpExchange exchange, LatencyDistribution latency) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            byte[] buffer = new byte[8192];
+            while (body.read(buffer) >= 0) { // NOPMD drain the request body
+            }
+        }
+        long delay = latency.nextNanos();
+        if (delay <= 0) {
+            respond(exchange);
+        } else {
+            responses.schedule(() -> respondQuietly(exchange), delay, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static void respondQuietly(HttpExchange exchange) {
+        try {
+            respond(exchange);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, ORDER_RESPONSE.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(ORDER_RESPONSE);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        handlers.shutdownNow();
+        responses.shutdownNow();
+    }
+}
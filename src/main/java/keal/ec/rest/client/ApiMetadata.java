@@ -0,0 +1,126 @@
+package keal.ec.rest.client;
+
+import feign.Contract;
+import feign.Feign;
+import feign.MethodMetadata;
+import feign.hystrix.HystrixDelegatingContract;
+import keal.ec.rest.client.async.AsyncContract;
+import keal.ec.rest.client.cache.CachedResponse;
+import keal.ec.rest.client.collapse.Collapse;
+import keal.ec.rest.client.hedge.Hedged;
+import keal.ec.rest.client.transport.MethodTags;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What {@link RestClient} reads from an api interface, computed once per interface: the Feign method metadata parsed
+ * by the contracts and the annotated methods. Building another client of the same interface, for example with a
+ * different {@link keal.ec.rest.client.auth.Authentication}, then skips the contract parsing and the reflection.
+ * <p>
+ * Feign copies the request template of the metadata on every call, so the clients can share the metadata, but the
+ * contract {@code HystrixFeign} puts around the one of the builder rewrites the return type of the methods returning
+ * a {@code HystrixCommand} or an Rx type. Clients built with and without Hystrix therefore get metadata of their own,
+ * and the Hystrix one is cached already rewritten, leaving nothing for the contract of {@code HystrixFeign} to
+ * change. Entries are held in {@link ClassValue}s and go away with the interface class.
+ */
+final class ApiMetadata {
+
+    private static final Contract CONTRACT = new CachingContract(new AsyncContract(new Contract.Default()));
+    private static final Contract TAGGING_CONTRACT =
+            new CachingContract(MethodTags.contract(new AsyncContract(new Contract.Default())));
+    private static final Contract HYSTRIX_CONTRACT =
+            new CachingContract(new HystrixDelegatingContract(new AsyncContract(new Contract.Default())));
+    private static final Contract HYSTRIX_TAGGING_CONTRACT = new CachingContract(
+            new HystrixDelegatingContract(MethodTags.contract(new AsyncContract(new Contract.Default()))));
+
+    private static final ClassValue<ApiMetadata> METADATA = new ClassValue<ApiMetadata>() {
+        @Override
+        protected ApiMetadata computeValue(Class<?> apiClass) {
+            return new ApiMetadata(apiClass);
+        }
+    };
+
+    private final Map<String, Hedged> hedgedMethods;
+    private final Map<String, CachedResponse> cachedMethods;
+    private final boolean collapsing;
+
+    private ApiMetadata(Class<?> apiClass) {
+        Map<String, Hedged> hedged = new HashMap<>();
+        Map<String, CachedResponse> cached = new HashMap<>();
+        boolean collapse = false;
+        for (Method method : apiClass.getMethods()) {
+            collapse |= method.isAnnotationPresent(Collapse.class);
+            Hedged hedgedAnnotation = method.getAnnotation(Hedged.class);
+            if (hedgedAnnotation != null) {
+                hedged.put(Feign.configKey(apiClass, method), hedgedAnnotation);
+            }
+            CachedResponse cachedAnnotation = method.getAnnotation(CachedResponse.class);
+            if (cachedAnnotation != null) {
+                cached.put(Feign.configKey(apiClass, method), cachedAnnotation);
+            }
+        }
+        this.hedgedMethods = Collections.unmodifiableMap(hedged);
+        this.cachedMethods = Collections.unmodifiableMap(cached);
+        this.collapsing = collapse;
+    }
+
+    static ApiMetadata of(Class<?> apiClass) {
+        return METADATA.get(apiClass);
+    }
+
+    /**
+     * @param tagging whether the requests are tagged with their api method, see {@link MethodTags}
+     * @param hystrix whether the client is built by {@code HystrixFeign}
+     * @return the contract of the clients, parsing each interface once
+     */
+    static Contract contract(boolean tagging, boolean hystrix) {
+        if (hystrix) {
+            return tagging ? HYSTRIX_TAGGING_CONTRACT : HYSTRIX_CONTRACT;
+        }
+        return tagging ? TAGGING_CONTRACT : CONTRACT;
+    }
+
+    /**
+     * @return methods annotated with {@link Hedged}, by Feign config key
+     */
+    Map<String, Hedged> hedgedMethods() {
+        return hedgedMethods;
+    }
+
+    /**
+     * @return methods annotated with {@link CachedResponse}, by Feign config key
+     */
+    Map<String, CachedResponse> cachedMethods() {
+        return cachedMethods;
+    }
+
+    /**
+     * @return whether any method is annotated with {@link Collapse}
+     */
+    boolean isCollapsing() {
+        return collapsing;
+    }
+
+    private static final class CachingContract implements Contract {
+
+        private final ClassValue<List<MethodMetadata>> metadata;
+
+        private CachingContract(Contract delegate) {
+            this.metadata = new ClassValue<List<MethodMetadata>>() {
+                @Override
+                protected List<MethodMetadata> computeValue(Class<?> targetType) {
+                    return Collections.unmodifiableList(delegate.parseAndValidatateMetadata(targetType));
+                }
+            };
+        }
+
+        @Override
+        public List<MethodMetadata> parseAndValidatateMetadata(Class<?> targetType) {
+            return metadata.get(targetType);
+        }
+    }
+}
@@ -1,26 +1,57 @@
 package keal.ec.rest.client;
 
 
-import com.fasterxml.jackson.annotation.JsonInclude;
-import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.netflix.config.ConfigurationManager;
+import feign.Client;
 import feign.Feign;
 import feign.Logger;
+import feign.Retryer;
 import feign.hystrix.FallbackFactory;
 import feign.hystrix.HystrixFeign;
-import feign.jackson.JacksonDecoder;
-import feign.jackson.JacksonEncoder;
-import feign.okhttp.OkHttpClient;
 import feign.slf4j.Slf4jLogger;
+import keal.ec.rest.client.async.AsyncContract;
+import keal.ec.rest.client.async.AsyncExecutors;
+import keal.ec.rest.client.async.AsyncInvocationHandlerFactory;
+import keal.ec.rest.client.async.VirtualThreads;
 import keal.ec.rest.client.auth.Authentication;
+import keal.ec.rest.client.auth.CallCredentials;
 import keal.ec.rest.client.auth.JWTToken;
 import keal.ec.rest.client.auth.NoAuthentication;
+import keal.ec.rest.client.balance.BalancingClient;
+import keal.ec.rest.client.balance.LoadBalancer;
+import keal.ec.rest.client.cache.CachedResponse;
+import keal.ec.rest.client.cache.CachingClient;
+import keal.ec.rest.client.cache.ResponseCache;
+import keal.ec.rest.client.codec.CodecRegistry;
+import keal.ec.rest.client.collapse.CollapsingInvocationHandler;
 import keal.ec.rest.client.error.RestClientErrorDecoder;
+import keal.ec.rest.client.error.RestClientException;
+import keal.ec.rest.client.hedge.Hedged;
+import keal.ec.rest.client.hedge.HedgingClient;
+import keal.ec.rest.client.hystrix.CommandSettings;
+import keal.ec.rest.client.hystrix.ExecutionMode;
+import keal.ec.rest.client.hystrix.RestClientSetterFactory;
+import keal.ec.rest.client.limit.ConcurrencyLimiter;
+import keal.ec.rest.client.limit.LimitingClient;
+import keal.ec.rest.client.log.SamplingLogger;
+import keal.ec.rest.client.metrics.MetricsClient;
+import keal.ec.rest.client.metrics.MetricsRegistry;
+import keal.ec.rest.client.retry.RetryBudget;
+import keal.ec.rest.client.retry.RetryPolicy;
+import keal.ec.rest.client.trace.Tracing;
+import keal.ec.rest.client.transport.MethodTags;
+import keal.ec.rest.client.transport.StreamingBodies;
+import keal.ec.rest.client.transport.TransportRegistry;
+import keal.ec.rest.client.transport.TransportSettings;
+import okhttp3.OkHttpClient;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
 
 
 /**
@@ -30,11 +61,33 @@ import java.util.Optional;
  */
 public class RestClient {
 
-    private static final String HYSTRIX_TIME_OUT = "hystrix.command.default.execution.isolation.thread.timeoutInMilliseconds";
+    private static final int DEFAULT_MAX_CONCURRENT_REQUESTS = 10;
+    private static final int DEFAULT_FALLBACK_TIMEOUT = 1000;
     private Authentication authentication;
     private String serviceUrl;
     private Class apiClass;
     private Integer fallBackTimeout = null;
+    private TransportSettings transportSettings;
+    private OkHttpClient okHttpClient;
+    private ObjectMapper mapper;
+    private Logger.Level logLevel = Logger.Level.NONE;
+    private int logSampleRate = 1;
+    private ExecutionMode executionMode = ExecutionMode.THREAD;
+    private Integer maxConcurrentRequests;
+    private CommandSettings commandSettings;
+    private final Map<String, CommandSettings> methodCommandSettings = new HashMap<>();
+    private ExecutorService asyncExecutor;
+    private boolean virtualThreads;
+    private ResponseCache responseCache;
+    private boolean streamRequestBodies;
+    private int maxErrorBodyBytes = RestClientErrorDecoder.DEFAULT_MAX_BODY_BYTES;
+    private boolean errorStackTraces = true;
+    private RetryPolicy retryPolicy;
+    private LoadBalancer loadBalancer;
+    private RetryBudget hedgeBudget;
+    private ConcurrencyLimiter concurrencyLimiter;
+    private MetricsRegistry metricsRegistry;
+    private Tracing tracing;
 
 
     public static RestClient get() {
@@ -60,6 +113,11 @@ public class RestClient {
      * Crea un cliente de un servicio Rest utilizando netflix hystrix y feign con soporte para un FallbackFactory
      * que se ejecutar&#x00E1; cuando se produzcan errores o  cuando la petici&#x00F3;n
      * supere el timeout definido, por defecto es 1 segundo.
+     * <p>
+     * Api interfaces with {@code CompletableFuture} methods do not run through Hystrix: their calls run on the async
+     * executor, the fallback is applied on failures and after {@link #fallBackTimeout(Integer)}, and there is no
+     * circuit breaker. Building them with {@link #commandSettings}, {@link #maxConcurrentRequests(int)} or
+     * {@link ExecutionMode#SEMAPHORE} fails with an {@link IllegalStateException}.
      *
      * @param fallbackFactory
      * @param <T>
@@ -73,6 +131,9 @@ public class RestClient {
      * Crea un cliente de un servicio Rest utilizando netflix hystrix y feign con soporte para una funci&#x00F3;n
      * de java  que se ejecutar&#x00E1; cuando se produzcan errores o  cuando la petici&#x00F3;n
      * supere el timeout definido, por defecto es 1 segundo.
+     * <p>
+     * Api interfaces with {@code CompletableFuture} methods do not run through Hystrix, see
+     * {@link #build(FallbackFactory)}.
      *
      * @param fallback
      * @param <T>
@@ -88,68 +149,183 @@ public class RestClient {
         if (Objects.isNull(authentication)) {
             authentication = new NoAuthentication();
         }
-        if (fallback == null) {
-            return simpleBuilder();
+        if (authentication instanceof CallCredentials) {
+            checkCallCredentials(fallback);
+        }
+        T client;
+        if (AsyncContract.isAsync(apiClass)) {
+            checkAsyncSettings();
+            client = asyncBuilder(fallback);
+        } else if (fallback == null) {
+            client = simpleBuilder();
         } else if (fallback instanceof FallbackFactory) {
-            return fallbackFactoryBuilder((FallbackFactory<T>) fallback);
+            client = fallbackFactoryBuilder((FallbackFactory<T>) fallback);
         } else {
-            return fallbackBuilder(fallback);
+            client = fallbackBuilder(fallback);
+        }
+        return CollapsingInvocationHandler.wrap((Class<T>) apiClass, client,
+                Objects.isNull(fallBackTimeout) ? DEFAULT_FALLBACK_TIMEOUT : fallBackTimeout);
+    }
+
+    /**
+     * Rejects the clients that would send the default authentication of the {@link CallCredentials} instead of the
+     * one bound to the calling thread, because their calls are sent from Hystrix threads.
+     */
+    private void checkCallCredentials(Object fallback) {
+        if (ApiMetadata.of(apiClass).isCollapsing()) {
+            throw new IllegalStateException("CallCredentials do not reach the batches of the @Collapse methods of "
+                    + apiClass.getName());
+        }
+        if (fallback != null && !AsyncContract.isAsync(apiClass) && getSetterFactory().isThreadIsolated(apiClass)) {
+            throw new IllegalStateException("CallCredentials require ExecutionMode.SEMAPHORE for clients of "
+                    + apiClass.getName() + " built with a fallback");
+        }
+    }
+
+    /**
+     * Rejects the Hystrix settings the asynchronous clients would ignore, their calls do not run in Hystrix commands.
+     */
+    private void checkAsyncSettings() {
+        if (commandSettings != null || !methodCommandSettings.isEmpty() || maxConcurrentRequests != null
+                || executionMode != ExecutionMode.THREAD) {
+            throw new IllegalStateException("Hystrix command settings, maxConcurrentRequests and executionMode do "
+                    + "not apply to the asynchronous api interface " + apiClass.getName());
         }
     }
 
     private <T> T fallbackBuilder(T fallback) {
-        ObjectMapper mapper = getObjectMapper();
-        hystrixSetup();
-        return HystrixFeign.builder()
-                .client(new OkHttpClient())
-                .encoder(new JacksonEncoder(mapper))
-                .decoder(new JacksonDecoder(mapper))
-                .logger(new Slf4jLogger(apiClass))
-                .logLevel(Logger.Level.FULL)
-                .requestInterceptor(authentication)
-                .errorDecoder(new RestClientErrorDecoder())
-                .target((Class<T>) apiClass, serviceUrl, fallback);
+        return configure(HystrixFeign.builder())
+                .setterFactory(getSetterFactory())
+                .target((Class<T>) apiClass, getUrl(), fallback);
     }
 
 
     private <T> T fallbackFactoryBuilder(FallbackFactory<T> fallbackFactory) {
-        ObjectMapper mapper = getObjectMapper();
-        hystrixSetup();
-        return HystrixFeign.builder()
-                .client(new OkHttpClient())
-                .encoder(new JacksonEncoder(mapper))
-                .decoder(new JacksonDecoder(mapper))
-                .logger(new Slf4jLogger(apiClass))
-                .logLevel(Logger.Level.FULL)
-                .requestInterceptor(authentication)
-                .errorDecoder(new RestClientErrorDecoder())
-                .target((Class<T>) apiClass, serviceUrl, fallbackFactory);
+        return configure(HystrixFeign.builder())
+                .setterFactory(getSetterFactory())
+                .target((Class<T>) apiClass, getUrl(), fallbackFactory);
     }
 
     private <T> T simpleBuilder() {
-        ObjectMapper mapper = getObjectMapper();
-        return Feign.builder()
-                .client(new OkHttpClient())
-                .encoder(new JacksonEncoder(mapper))
-                .decoder(new JacksonDecoder(mapper))
-                .logger(new Slf4jLogger(apiClass))
-                .logLevel(Logger.Level.FULL)
+        return configure(Feign.builder())
+                .target((Class<T>) apiClass, getUrl());
+    }
+
+    private <T> T asyncBuilder(T fallback) {
+        FallbackFactory<?> fallbackFactory = null;
+        Integer timeout = null;
+        if (fallback instanceof FallbackFactory) {
+            fallbackFactory = (FallbackFactory<?>) fallback;
+        } else if (fallback != null) {
+            fallbackFactory = new FallbackFactory.Default<>(fallback);
+        }
+        if (fallbackFactory != null) {
+            timeout = Objects.isNull(fallBackTimeout) ? DEFAULT_FALLBACK_TIMEOUT : fallBackTimeout;
+        }
+        ExecutorService executor = asyncExecutor;
+        if (executor == null) {
+            executor = virtualThreads && VirtualThreads.isAvailable()
+                    ? VirtualThreads.executor() : AsyncExecutors.shared();
+        }
+        return configure(Feign.builder())
+                .invocationHandlerFactory(new AsyncInvocationHandlerFactory(executor, fallbackFactory, timeout))
+                .target((Class<T>) apiClass, getUrl());
+    }
+
+    private <B extends Feign.Builder> B configure(B builder) {
+        ApiMetadata metadata = ApiMetadata.of(apiClass);
+        Map<String, CachedResponse> cachedMethods =
+                responseCache == null ? Collections.emptyMap() : metadata.cachedMethods();
+        Map<String, Hedged> hedgedMethods = metadata.hedgedMethods();
+        boolean tagging = !cachedMethods.isEmpty() || !hedgedMethods.isEmpty() || metricsRegistry != null;
+        Client client = getClient();
+        if (loadBalancer != null) {
+            client = new BalancingClient(client, loadBalancer);
+        }
+        if (tagging) {
+            client = MethodTags.untagging(client);
+        }
+        if (!hedgedMethods.isEmpty()) {
+            client = new HedgingClient(client, hedgedMethods, hedgeBudget);
+        }
+        if (concurrencyLimiter != null) {
+            client = new LimitingClient(client, concurrencyLimiter);
+        }
+        if (!cachedMethods.isEmpty()) {
+            client = new CachingClient(client, responseCache, cachedMethods);
+        }
+        Retryer retryer = getRetryPolicy().retryer();
+        if (metricsRegistry != null) {
+            MetricsClient metricsClient = new MetricsClient(client, metricsRegistry, apiClass.getSimpleName());
+            retryer = metricsClient.retryer(retryer);
+            client = metricsClient;
+        }
+        client = StreamingBodies.releasing(client);
+        builder.contract(ApiMetadata.contract(tagging, builder instanceof HystrixFeign.Builder))
+                .client(client)
+                .encoder(streamRequestBodies ? CodecRegistry.streamingEncoder(mapper) : CodecRegistry.encoder(mapper))
+                .decoder(CodecRegistry.decoder(mapper))
+                .doNotCloseAfterDecode()
+                .logger(getLogger())
+                .logLevel(logLevel)
                 .requestInterceptor(authentication)
-                .errorDecoder(new RestClientErrorDecoder())
-                .target((Class<T>) apiClass, serviceUrl);
+                .retryer(retryer)
+                .errorDecoder(getRetryPolicy().errorDecoder(
+                        new RestClientErrorDecoder(mapper, maxErrorBodyBytes, errorStackTraces)));
+        if (tracing != null) {
+            builder.requestInterceptor(tracing.interceptor());
+        }
+        return builder;
     }
 
-    private void hystrixSetup() {
+    private RestClientSetterFactory getSetterFactory() {
+        CommandSettings settings = CommandSettings.get();
         if (fallBackTimeout != null) {
-            ConfigurationManager.getConfigInstance().setProperty(HYSTRIX_TIME_OUT, fallBackTimeout);
+            settings.timeout(fallBackTimeout);
+        }
+        if (executionMode == ExecutionMode.SEMAPHORE) {
+            settings.semaphoreIsolation(Objects.isNull(maxConcurrentRequests)
+                    ? DEFAULT_MAX_CONCURRENT_REQUESTS : maxConcurrentRequests);
+        } else if (maxConcurrentRequests != null) {
+            settings.maxConcurrentRequests(maxConcurrentRequests);
+        }
+        RestClientSetterFactory setterFactory =
+                new RestClientSetterFactory(settings.merge(commandSettings), methodCommandSettings)
+                        .metrics(metricsRegistry);
+        return virtualThreads ? setterFactory.virtualThreads() : setterFactory;
+    }
+
+    private Logger getLogger() {
+        if (logSampleRate > 1) {
+            return new SamplingLogger(apiClass, logSampleRate);
+        }
+        return new Slf4jLogger(apiClass);
+    }
+
+    private String getUrl() {
+        return loadBalancer != null ? LoadBalancer.BASE_URL : serviceUrl;
+    }
+
+    private RetryPolicy getRetryPolicy() {
+        if (retryPolicy == null) {
+            retryPolicy = RetryPolicy.get();
         }
+        return retryPolicy;
     }
 
-    private ObjectMapper getObjectMapper() {
-        return new ObjectMapper()
-                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
-                .configure(SerializationFeature.INDENT_OUTPUT, true)
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private Client getClient() {
+        if (tracing != null) {
+            OkHttpClient base = okHttpClient;
+            if (base == null) {
+                base = transportSettings == null
+                        ? TransportRegistry.shared() : TransportRegistry.okHttpClient(transportSettings);
+            }
+            return TransportRegistry.client(tracing.instrument(base));
+        }
+        if (okHttpClient != null) {
+            return TransportRegistry.client(okHttpClient);
+        }
+        return TransportRegistry.client(transportSettings);
     }
 
 
@@ -158,6 +334,14 @@ public class RestClient {
         return this;
     }
 
+    /**
+     * Sends the given token with every call of the client. Building a client per token is cheap, the api interface is
+     * parsed once per process, but a client built with {@link keal.ec.rest.client.auth.CallCredentials} takes the
+     * token of each call without building anything.
+     *
+     * @param jwtTokenOptional JWT token, {@code ND} is sent when empty
+     * @return this builder
+     */
     public RestClient withJWTToken(Optional<String> jwtTokenOptional) {
         JWTToken jwtToken = JWTToken.build(jwtTokenOptional);
         return withJWTToken(jwtToken);
@@ -173,10 +357,284 @@ public class RestClient {
         return this;
     }
 
+    /**
+     * Balances the requests over the given replicas of the service instead of a single {@link #url(String)}.
+     *
+     * @param serviceUrls base URLs of the replicas
+     * @return this builder
+     */
+    public RestClient urls(List<String> serviceUrls) {
+        return loadBalancer(LoadBalancer.get().endpoints(serviceUrls));
+    }
+
+    /**
+     * Balances the requests with the given balancer, which knows the endpoints of the service and how unhealthy
+     * endpoints are ejected. Takes precedence over {@link #url(String)}.
+     *
+     * @param loadBalancer load balancer
+     * @return this builder
+     */
+    public RestClient loadBalancer(LoadBalancer loadBalancer) {
+        this.loadBalancer = loadBalancer;
+        return this;
+    }
+
 
     public RestClient fallBackTimeout(Integer fallBackTimeout) {
         this.fallBackTimeout = fallBackTimeout;
         return this;
     }
 
+    /**
+     * Executor running the calls of the api interface methods returning a
+     * {@link java.util.concurrent.CompletableFuture}, a bounded executor shared by every asynchronous client by
+     * default. Calls rejected by the executor complete exceptionally, or with the fallback if there is one.
+     *
+     * @param asyncExecutor executor of the asynchronous calls
+     * @return this builder
+     */
+    public RestClient asyncExecutor(ExecutorService asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+        return this;
+    }
+
+    /**
+     * Runs the calls of the client on virtual threads when the runtime is JDK 21+, on older runtimes the option is
+     * ignored. Asynchronous methods run one virtual thread per call, and the Hystrix thread pool of a client built
+     * with a fallback creates virtual threads. Blocking calls without fallback run on the caller thread as always.
+     *
+     * @return this builder
+     */
+    public RestClient virtualThreads() {
+        this.virtualThreads = true;
+        return this;
+    }
+
+    /**
+     * Selects where the calls of a client built with a fallback run, {@link ExecutionMode#THREAD} by default.
+     * {@link ExecutionMode#SEMAPHORE} saves the thread handoff of every call for clients already called from their
+     * own request threads; fallbacks run the same way in both modes.
+     *
+     * @param executionMode Hystrix execution mode
+     * @return this builder
+     */
+    public RestClient executionMode(ExecutionMode executionMode) {
+        this.executionMode = Objects.requireNonNull(executionMode, "executionMode");
+        return this;
+    }
+
+    /**
+     * Maximum concurrent calls of a client run in {@link ExecutionMode#SEMAPHORE} mode, and maximum concurrent
+     * fallbacks in any mode, 10 by default. Calls beyond the limit go straight to the fallback.
+     *
+     * @param maxConcurrentRequests maximum concurrent calls
+     * @return this builder
+     */
+    public RestClient maxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests < 1: " + maxConcurrentRequests);
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    /**
+     * Hystrix settings of every method of a client built with a fallback, a timeout set here takes precedence over
+     * {@link #fallBackTimeout(Integer)}.
+     *
+     * @param commandSettings timeout, thread pool and isolation settings
+     * @return this builder
+     */
+    public RestClient commandSettings(CommandSettings commandSettings) {
+        this.commandSettings = commandSettings;
+        return this;
+    }
+
+    /**
+     * Hystrix settings of a single method of a client built with a fallback, overriding the client settings.
+     *
+     * @param methodName      name of the api interface method
+     * @param commandSettings timeout, thread pool and isolation settings
+     * @return this builder
+     */
+    public RestClient commandSettings(String methodName, CommandSettings commandSettings) {
+        this.methodCommandSettings.put(methodName, commandSettings);
+        return this;
+    }
+
+    /**
+     * Uses the shared transport registered for the given pool settings instead of the default shared transport.
+     *
+     * @param transportSettings connection pool and dispatcher settings
+     * @return this builder
+     */
+    public RestClient transport(TransportSettings transportSettings) {
+        this.transportSettings = transportSettings;
+        return this;
+    }
+
+    /**
+     * Uses an externally owned OkHttp client, its connection pool and lifecycle stay with the caller.
+     *
+     * @param okHttpClient OkHttp client to send the requests with
+     * @return this builder
+     */
+    public RestClient okHttpClient(OkHttpClient okHttpClient) {
+        this.okHttpClient = okHttpClient;
+        return this;
+    }
+
+    /**
+     * Encodes and decodes the bodies with the given mapper instead of the shared one of {@link CodecRegistry}. The
+     * mapper should be long-lived, clients built with the same mapper share their codecs.
+     *
+     * @param mapper Jackson mapper
+     * @return this builder
+     */
+    public RestClient mapper(ObjectMapper mapper) {
+        this.mapper = mapper;
+        return this;
+    }
+
+    /**
+     * Serializes request bodies directly into the connection instead of building the whole body in memory first.
+     * Streamed bodies are sent chunked and their requests are never retried: the first failure reaches the caller.
+     * {@code InputStream} and {@code Path} bodies are always streamed.
+     *
+     * @return this builder
+     */
+    public RestClient streamRequestBodies() {
+        this.streamRequestBodies = true;
+        return this;
+    }
+
+    /**
+     * Retry policy of the client. Without one, {@link RetryPolicy#get()} applies: up to 3 attempts for I/O
+     * failures of every request and for the retryable statuses of GET, HEAD, PUT, DELETE and OPTIONS requests, with
+     * jittered exponential backoff and within the process-wide {@link keal.ec.rest.client.retry.RetryBudget}. Error
+     * responses of POST and PATCH requests are only retried with {@link RetryPolicy#retryNonIdempotent()}. Use
+     * {@code RetryPolicy.get().maxAttempts(1)} to disable retries.
+     *
+     * @param retryPolicy retry policy
+     * @return this builder
+     */
+    public RestClient retryPolicy(RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    /**
+     * Budget of the duplicate requests sent for the api methods annotated with {@link Hedged}, by default the
+     * process-wide {@link HedgingClient#sharedBudget()}.
+     *
+     * @param hedgeBudget budget of the duplicate requests
+     * @return this builder
+     */
+    public RestClient hedgeBudget(RetryBudget hedgeBudget) {
+        this.hedgeBudget = hedgeBudget;
+        return this;
+    }
+
+    /**
+     * Puts an adaptive concurrency limit in front of the client: calls beyond the limit fail right away with a
+     * {@link keal.ec.rest.client.limit.ConcurrencyLimitExceededException}, handled by the fallback of the client.
+     * The limiter keeps the state of this client, do not share it with other builders.
+     *
+     * @param concurrencyLimiter concurrency limiter of the client
+     * @return this builder
+     */
+    public RestClient concurrencyLimiter(ConcurrencyLimiter concurrencyLimiter) {
+        this.concurrencyLimiter = concurrencyLimiter;
+        return this;
+    }
+
+    /**
+     * Reports the calls of the client to the given registry: requests, latencies, statuses, bytes, retries and
+     * concurrency limit rejections, and for a client built with a fallback the Hystrix fallbacks, timeouts, short
+     * circuits and rejections. Measurements are attributed to the api interface and method, see
+     * {@link keal.ec.rest.client.metrics.InMemoryMetricsRegistry} for a registry kept in process.
+     *
+     * @param metricsRegistry registry of the measurements
+     * @return this builder
+     */
+    public RestClient metrics(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
+
+    /**
+     * Traces the calls of the client: every request carries a W3C {@code traceparent} header next to the headers of
+     * the {@link Authentication}, and its DNS, connect, TLS, server and body reading times are reported to the
+     * exporter of the tracing. The instrumented transport shares the connection pool of the uninstrumented one.
+     *
+     * @param tracing tracing of the client
+     * @return this builder
+     */
+    public RestClient tracing(Tracing tracing) {
+        this.tracing = tracing;
+        return this;
+    }
+
+    /**
+     * Limits how much of an error response body is kept on the {@link RestClientException}, 8 KiB by default.
+     *
+     * @param maxErrorBodyBytes maximum number of body bytes, 0 to skip the body
+     * @return this builder
+     */
+    public RestClient maxErrorBodyBytes(int maxErrorBodyBytes) {
+        this.maxErrorBodyBytes = maxErrorBodyBytes;
+        return this;
+    }
+
+    /**
+     * Whether the {@link RestClientException} of an HTTP error captures its stack trace, enabled by default.
+     * Disabling it makes error storms cheaper, the trace of an HTTP error only points at Feign internals.
+     *
+     * @param errorStackTraces whether stack traces are captured
+     * @return this builder
+     */
+    public RestClient errorStackTraces(boolean errorStackTraces) {
+        this.errorStackTraces = errorStackTraces;
+        return this;
+    }
+
+    /**
+     * Keeps the responses of the api methods annotated with {@link CachedResponse} in the given cache, without a
+     * cache those methods call the server every time.
+     *
+     * @param responseCache cache of the responses
+     * @return this builder
+     */
+    public RestClient responseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+        return this;
+    }
+
+    /**
+     * Feign log level of the client, {@link Logger.Level#NONE} by default so nothing is formatted or buffered for
+     * logging on the request path.
+     *
+     * @param logLevel Feign log level
+     * @return this builder
+     */
+    public RestClient logLevel(Logger.Level logLevel) {
+        this.logLevel = Objects.requireNonNull(logLevel, "logLevel");
+        return this;
+    }
+
+    /**
+     * Logs at the configured {@link #logLevel(Logger.Level)} only one in every {@code sampleRate} calls and every
+     * failed call, the remaining calls are logged at {@link Logger.Level#BASIC} at most.
+     *
+     * @param sampleRate one in how many calls are logged in full, 1 logs every call
+     * @return this builder
+     */
+    public RestClient logSampling(int sampleRate) {
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate < 1: " + sampleRate);
+        }
+        this.logSampleRate = sampleRate;
+        return this;
+    }
+
 }
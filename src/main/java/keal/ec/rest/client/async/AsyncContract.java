@@ -0,0 +1,53 @@
+package keal.ec.rest.client.async;
+
+import feign.Contract;
+import feign.MethodMetadata;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contract decorator for api interfaces with methods returning {@link CompletableFuture}, the response of those
+ * methods is decoded to the type argument of the future.
+ */
+public final class AsyncContract implements Contract {
+
+    private final Contract delegate;
+
+    public AsyncContract(Contract delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public List<MethodMetadata> parseAndValidatateMetadata(Class<?> targetType) {
+        List<MethodMetadata> metadata = delegate.parseAndValidatateMetadata(targetType);
+        for (MethodMetadata md : metadata) {
+            Type type = md.returnType();
+            if (type instanceof ParameterizedType
+                    && ((ParameterizedType) type).getRawType() == CompletableFuture.class) {
+                md.returnType(((ParameterizedType) type).getActualTypeArguments()[0]);
+            }
+        }
+        return metadata;
+    }
+
+    /**
+     * @param apiClass api interface
+     * @return {@code true} when any method of the interface returns a {@link CompletableFuture}
+     */
+    public static boolean isAsync(Class<?> apiClass) {
+        for (Method method : apiClass.getMethods()) {
+            if (isAsync(method)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static boolean isAsync(Method method) {
+        return method.getReturnType() == CompletableFuture.class;
+    }
+}
@@ -0,0 +1,65 @@
+package keal.ec.rest.client.async;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors shared by the asynchronous clients: a bounded pool running the calls, and a single thread completing
+ * the calls that exceed their timeout.
+ */
+public final class AsyncExecutors {
+
+    private static final int THREADS = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+    private static final int QUEUE_SIZE = 1024;
+
+    private static final ExecutorService SHARED = newBoundedExecutor("rest-client-async", THREADS, QUEUE_SIZE);
+    private static final ScheduledExecutorService TIMEOUTS = newTimeoutScheduler();
+
+    private AsyncExecutors() {
+    }
+
+    /**
+     * @return the bounded executor shared by the asynchronous clients, calls beyond its queue are rejected
+     */
+    public static ExecutorService shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param name      thread name prefix
+     * @param threads   number of threads
+     * @param queueSize calls queued when every thread is busy
+     * @return a bounded executor with daemon threads rejecting calls beyond its queue
+     */
+    public static ExecutorService newBoundedExecutor(String name, int threads, int queueSize) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueSize), daemonThreads(name), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    static ScheduledExecutorService timeouts() {
+        return TIMEOUTS;
+    }
+
+    private static ScheduledExecutorService newTimeoutScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("rest-client-timeout"));
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package keal.ec.rest.client.async;
+
+import feign.InvocationHandlerFactory;
+import feign.Target;
+import feign.hystrix.FallbackFactory;
+import keal.ec.rest.client.auth.CallCredentials;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Invocation handler factory of the asynchronous clients. Methods returning a {@link CompletableFuture} run on a
+ * bounded executor; when the future completes exceptionally, times out or the executor rejects the call, the
+ * fallback method is invoked with the same arguments and its future is returned instead. Blocking methods run on
+ * the caller thread and fall back the same way. Asynchronous calls keep the {@link CallCredentials} of the caller.
+ */
+public final class AsyncInvocationHandlerFactory implements InvocationHandlerFactory {
+
+    private final ExecutorService executor;
+    private final FallbackFactory<?> fallbackFactory;
+    private final Integer timeout;
+
+    /**
+     * @param executor        executor running the calls
+     * @param fallbackFactory fallback of the failed calls, may be {@code null}
+     * @param timeout         milliseconds after which a call fails with a {@link TimeoutException}, may be
+     *                        {@code null}
+     */
+    public AsyncInvocationHandlerFactory(ExecutorService executor, FallbackFactory<?> fallbackFactory,
+                                         Integer timeout) {
+        this.executor = executor;
+        this.fallbackFactory = fallbackFactory;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public InvocationHandler create(Target target, Map<Method, MethodHandler> dispatch) {
+        return new AsyncInvocationHandler(target, dispatch);
+    }
+
+    private final class AsyncInvocationHandler implements InvocationHandler {
+
+        private final Target<?> target;
+        private final Map<Method, MethodHandler> dispatch;
+
+        private AsyncInvocationHandler(Target<?> target, Map<Method, MethodHandler> dispatch) {
+            this.target = target;
+            this.dispatch = dispatch;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if ("equals".equals(method.getName())) {
+                try {
+                    Object other = args.length > 0 && args[0] != null ? Proxy.getInvocationHandler(args[0]) : null;
+                    return equals(other);
+                } catch (IllegalArgumentException e) {
+                    return false;
+                }
+            } else if ("hashCode".equals(method.getName())) {
+                return hashCode();
+            } else if ("toString".equals(method.getName())) {
+                return toString();
+            }
+            MethodHandler handler = dispatch.get(method);
+            if (AsyncContract.isAsync(method) && !method.isDefault()) {
+                return invokeAsync(handler, method, args);
+            }
+            try {
+                return handler.invoke(args);
+            } catch (Throwable cause) {
+                if (fallbackFactory == null) {
+                    throw cause;
+                }
+                return fallback(cause, method, args);
+            }
+        }
+
+        private CompletableFuture<Object> invokeAsync(MethodHandler handler, Method method, Object[] args) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            try {
+                Future<?> call = executor.submit(CallCredentials.propagate(() -> {
+                    try {
+                        result.complete(handler.invoke(args));
+                    } catch (Throwable cause) {
+                        result.completeExceptionally(cause);
+                    }
+                }));
+                if (timeout != null) {
+                    ScheduledFuture<?> timer = AsyncExecutors.timeouts().schedule(() -> {
+                        if (result.completeExceptionally(new TimeoutException(
+                                target.name() + " call timed out after " + timeout + " ms"))) {
+                            call.cancel(true);
+                        }
+                    }, timeout, TimeUnit.MILLISECONDS);
+                    result.whenComplete((value, cause) -> timer.cancel(false));
+                }
+            } catch (RejectedExecutionException rejected) {
+                result.completeExceptionally(rejected);
+            }
+            if (fallbackFactory == null) {
+                return result;
+            }
+            return result.handle((value, cause) -> cause == null
+                    ? CompletableFuture.completedFuture(value)
+                    : fallbackAsync(unwrap(cause), method, args))
+                    .thenCompose(future -> future);
+        }
+
+        @SuppressWarnings("unchecked")
+        private CompletableFuture<Object> fallbackAsync(Throwable cause, Method method, Object[] args) {
+            try {
+                return (CompletableFuture<Object>) fallback(cause, method, args);
+            } catch (Throwable fallbackError) {
+                CompletableFuture<Object> failed = new CompletableFuture<>();
+                failed.completeExceptionally(fallbackError);
+                return failed;
+            }
+        }
+
+        private Object fallback(Throwable cause, Method method, Object[] args) throws Throwable {
+            Object fallback = fallbackFactory.create(cause);
+            try {
+                return method.invoke(fallback, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private Throwable unwrap(Throwable cause) {
+            if ((cause instanceof CompletionException || cause instanceof ExecutionException)
+                    && cause.getCause() != null) {
+                return cause.getCause();
+            }
+            return cause;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof AsyncInvocationHandler && target.equals(((AsyncInvocationHandler) obj).target);
+        }
+
+        @Override
+        public int hashCode() {
+            return target.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return target.toString();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package keal.ec.rest.client.async;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to the virtual threads of JDK 21+ runtimes from the Java 8 build, through reflection. On older runtimes
+ * {@link #isAvailable()} is {@code false} and the factory methods fail.
+ */
+public final class VirtualThreads {
+
+    private static final Method OF_VIRTUAL = method(Thread.class, "ofVirtual");
+    private static final Method NAME = method(builderClass(), "name", String.class, long.class);
+    private static final Method FACTORY = method(builderClass(), "factory");
+    private static final Method NEW_THREAD_PER_TASK_EXECUTOR =
+            method(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private static final boolean AVAILABLE = OF_VIRTUAL != null && NAME != null && FACTORY != null
+            && NEW_THREAD_PER_TASK_EXECUTOR != null;
+
+    private static volatile ExecutorService shared;
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return {@code true} when the runtime supports virtual threads
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * @param name thread name prefix, threads are numbered from 0
+     * @return a factory of virtual threads
+     */
+    public static ThreadFactory threadFactory(String name) {
+        checkAvailable();
+        try {
+            Object builder = NAME.invoke(OF_VIRTUAL.invoke(null), name + "-", 0L);
+            return (ThreadFactory) FACTORY.invoke(builder);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("virtual threads cannot be created", e);
+        }
+    }
+
+    /**
+     * @return the executor shared by the asynchronous clients running on virtual threads, one virtual thread per
+     * call
+     */
+    public static ExecutorService executor() {
+        ExecutorService executor = shared;
+        if (executor == null) {
+            synchronized (VirtualThreads.class) {
+                executor = shared;
+                if (executor == null) {
+                    executor = newExecutor(threadFactory("rest-client-virtual"));
+                    shared = executor;
+                }
+            }
+        }
+        return executor;
+    }
+
+    private static ExecutorService newExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) NEW_THREAD_PER_TASK_EXECUTOR.invoke(null, threadFactory);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("virtual thread executor cannot be created", e);
+        }
+    }
+
+    private static void checkAvailable() {
+        if (!AVAILABLE) {
+            throw new IllegalStateException("virtual threads require a JDK 21+ runtime, running on "
+                    + System.getProperty("java.version"));
+        }
+    }
+
+    private static Class<?> builderClass() {
+        try {
+            return Class.forName("java.lang.Thread$Builder");
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static Method method(Class<?> type, String name, Class<?>... parameterTypes) {
+        if (type == null) {
+            return null;
+        }
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -2,35 +2,58 @@ package keal.ec.rest.client.auth;
 
 import feign.RequestTemplate;
 
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 
+/**
+ * HTTP basic authentication. The {@code Authorization} header value is encoded once (UTF-8) when the credentials
+ * are set, so applying it to a request is a single header put. Credentials can be replaced at runtime with
+ * {@link #rotate(String, String)}; requests in flight keep the header they already read.
+ */
 public class BasicAuth implements Authentication {
 
-
     private String username;
     private String password;
+    private volatile String headerValue = headerValue(null, null);
 
     public static BasicAuth get() {
         return new BasicAuth();
     }
 
-    public BasicAuth username(String username) {
-
+    public synchronized BasicAuth username(String username) {
         this.username = username;
+        this.headerValue = headerValue(username, password);
         return this;
     }
 
-    public BasicAuth password(String password) {
+    public synchronized BasicAuth password(String password) {
         this.password = password;
+        this.headerValue = headerValue(username, password);
+        return this;
+    }
+
+    /**
+     * Replaces both credentials at once, the next requests use the new header value.
+     *
+     * @param username new username
+     * @param password new password
+     * @return this authentication
+     */
+    public synchronized BasicAuth rotate(String username, String password) {
+        this.username = username;
+        this.password = password;
+        this.headerValue = headerValue(username, password);
         return this;
     }
 
     @Override
     public void apply(RequestTemplate template) {
-        String headerValue = "Basic " + Base64.getEncoder().
-                encodeToString((username + ":" + password).getBytes(Charset.defaultCharset()));
         template.header("Authorization", headerValue);
     }
 
+    private static String headerValue(String username, String password) {
+        return "Basic " + Base64.getEncoder().
+                encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
 }
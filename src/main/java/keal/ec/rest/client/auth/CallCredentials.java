@@ -0,0 +1,108 @@
+package keal.ec.rest.client.auth;
+
+import feign.RequestTemplate;
+
+import java.util.Objects;
+
+/**
+ * Authentication chosen per call instead of per client: the requests of a client built with
+ * {@code auth(CallCredentials.get())} use the authentication bound to the calling thread with {@link #use}, or the
+ * default authentication outside of a binding. One long-lived client can then send the token of each inbound
+ * request, instead of building a client for every token with {@code withJWTToken}.
+ * <pre>
+ * try (CallCredentials.Scope scope = CallCredentials.use(JWTToken.build(token))) {
+ *     orderAPIClient.process(order);
+ * }
+ * </pre>
+ * The binding follows the calls of clients without fallback, of clients run in
+ * {@link keal.ec.rest.client.hystrix.ExecutionMode#SEMAPHORE} mode and of asynchronous methods. Calls of clients
+ * with a fallback in the default {@code THREAD} mode run on Hystrix threads, and the batches of
+ * {@link keal.ec.rest.client.collapse.Collapse} methods gather the calls of many threads, so neither would see it:
+ * building such a client with per-call credentials fails with an {@link IllegalStateException} instead of sending
+ * the default authentication. Responses kept by a {@link keal.ec.rest.client.cache.ResponseCache} are keyed by the
+ * {@code Authorization} header and are only served to calls with the same credentials.
+ */
+public final class CallCredentials implements Authentication {
+
+    private static final ThreadLocal<Authentication> CURRENT = new ThreadLocal<>();
+
+    private final Authentication defaultAuthentication;
+
+    private CallCredentials(Authentication defaultAuthentication) {
+        this.defaultAuthentication = Objects.requireNonNull(defaultAuthentication, "defaultAuthentication");
+    }
+
+    /**
+     * @return per-call authentication sending no credentials outside of a binding
+     */
+    public static CallCredentials get() {
+        return new CallCredentials(new NoAuthentication());
+    }
+
+    /**
+     * @param defaultAuthentication authentication of the calls made outside of a binding
+     * @return per-call authentication
+     */
+    public static CallCredentials get(Authentication defaultAuthentication) {
+        return new CallCredentials(defaultAuthentication);
+    }
+
+    /**
+     * Binds the authentication to the calling thread until the returned scope is closed, when the previous binding
+     * is restored.
+     *
+     * @param authentication authentication of the calls made in the scope
+     * @return scope of the binding
+     */
+    public static Scope use(Authentication authentication) {
+        Authentication previous = CURRENT.get();
+        CURRENT.set(Objects.requireNonNull(authentication, "authentication"));
+        return new Scope(previous);
+    }
+
+    /**
+     * @param task task run on another thread
+     * @return a task running with the binding of the calling thread, for executors of asynchronous calls
+     */
+    public static Runnable propagate(Runnable task) {
+        Authentication captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Scope scope = use(captured);
+            try {
+                task.run();
+            } finally {
+                scope.close();
+            }
+        };
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Authentication current = CURRENT.get();
+        (current != null ? current : defaultAuthentication).apply(template);
+    }
+
+    /**
+     * Binding of an authentication to the calling thread.
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Authentication previous;
+
+        private Scope(Authentication previous) {
+            this.previous = previous;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
@@ -1,12 +1,40 @@
 package keal.ec.rest.client.auth;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
 import feign.RequestTemplate;
+import keal.ec.rest.client.codec.CodecRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 
 public class JWTAuth implements Authentication {
 
+    /**
+     * Encoding of the login body when the credentials travel in the request body.
+     */
+    public enum CredentialFormat {
+        JSON("application/json"),
+        FORM("application/x-www-form-urlencoded");
+
+        private final String contentType;
+
+        CredentialFormat(String contentType) {
+            this.contentType = contentType;
+        }
+    }
+
+    private static final String USERNAME_FIELD = "username";
+    private static final String API_KEY_FIELD = "api_key";
+
     private String key;
     private String headerName;
     private String username;
+    private CredentialFormat credentialFormat = CredentialFormat.JSON;
+    private volatile byte[] body;
 
     public static JWTAuth get() {
         return new JWTAuth();
@@ -22,6 +50,18 @@ public class JWTAuth implements Authentication {
     public JWTAuth bodyUserApiKey(String username, String key) {
         this.username = username;
         this.key = key;
+        this.body = null;
+        return this;
+    }
+
+    /**
+     * @param credentialFormat format of the login body written by {@link #bodyUserApiKey(String, String)},
+     *                         JSON by default
+     * @return this authentication
+     */
+    public JWTAuth credentialFormat(CredentialFormat credentialFormat) {
+        this.credentialFormat = credentialFormat;
+        this.body = null;
         return this;
     }
 
@@ -29,16 +69,47 @@ public class JWTAuth implements Authentication {
     public void apply(RequestTemplate template) {
         if (username == null) {
             template.header(headerName, key);
-        } else {
-            //para pruebas
-            String body = "{ \n" +
-                    "   \"username\": \"" + username + "\", \n" +
-                    "   \"api_key\": \"" + key + "\"\n" +
-                    " }";
-
-            template.body(body);
+        } else if (template.body() == null) {
+            template.header("Content-Type", credentialFormat.contentType);
+            template.body(body(), StandardCharsets.UTF_8);
         }
 
     }
 
-}
\ No newline at end of file
+    /**
+     * The credentials are fixed, so the login body is encoded once and reused for every login request.
+     */
+    private byte[] body() {
+        byte[] encoded = body;
+        if (encoded == null) {
+            encoded = credentialFormat == CredentialFormat.JSON ? jsonBody() : formBody();
+            body = encoded;
+        }
+        return encoded;
+    }
+
+    private byte[] jsonBody() {
+        ByteArrayBuilder buffer = new ByteArrayBuilder();
+        try (JsonGenerator generator = CodecRegistry.defaultMapper().getFactory().createGenerator(buffer)) {
+            generator.writeStartObject();
+            generator.writeStringField(USERNAME_FIELD, username);
+            generator.writeStringField(API_KEY_FIELD, key);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] encoded = buffer.toByteArray();
+        buffer.release();
+        return encoded;
+    }
+
+    private byte[] formBody() {
+        try {
+            return (USERNAME_FIELD + "=" + URLEncoder.encode(username, "UTF-8") + "&"
+                    + API_KEY_FIELD + "=" + URLEncoder.encode(key, "UTF-8")).getBytes(StandardCharsets.UTF_8);
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
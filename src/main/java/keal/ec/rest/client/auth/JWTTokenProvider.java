@@ -0,0 +1,239 @@
+package keal.ec.rest.client.auth;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import feign.RequestTemplate;
+import keal.ec.rest.client.codec.CodecRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * JWT authentication that logs in through a {@link JWTClient} and keeps the token fresh. The expiry is read from the
+ * {@code exp} claim of the token and the token is refreshed in the background ahead of it; request threads only
+ * read the current header value. When there is no valid token, the first request thread logs in and the others
+ * wait for that same login. A token living shorter than twice the refresh-ahead time is refreshed halfway through
+ * its lifetime, and never sooner than the retry time after the login, so short-lived tokens do not cause a login
+ * loop. A token whose {@code exp} is already past when received, because of a clock skew, is used for the default
+ * ttl.
+ */
+public class JWTTokenProvider implements Authentication, AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JWTTokenProvider.class);
+
+    private static final String NOT_DEFINED = "ND";
+    private static final String BEARER = "Bearer ";
+
+    private static final ScheduledExecutorService SCHEDULER = newScheduler();
+
+    private final JWTClient jwtClient;
+    private long refreshAheadMillis = TimeUnit.MINUTES.toMillis(1);
+    private long defaultTtlMillis = TimeUnit.MINUTES.toMillis(5);
+    private long retryMillis = TimeUnit.SECONDS.toMillis(5);
+
+    private volatile Token token;
+    private final AtomicReference<CompletableFuture<Token>> login = new AtomicReference<>();
+    private final AtomicReference<ScheduledFuture<?>> scheduledRefresh = new AtomicReference<>();
+    private volatile boolean closed;
+
+    private JWTTokenProvider(JWTClient jwtClient) {
+        this.jwtClient = Objects.requireNonNull(jwtClient, "jwtClient");
+    }
+
+    public static JWTTokenProvider get(JWTClient jwtClient) {
+        return new JWTTokenProvider(jwtClient);
+    }
+
+    /**
+     * @param refreshAhead time before the expiry the token is refreshed, one minute by default
+     * @param unit         unit of {@code refreshAhead}
+     * @return this provider
+     */
+    public JWTTokenProvider refreshAhead(long refreshAhead, TimeUnit unit) {
+        this.refreshAheadMillis = unit.toMillis(refreshAhead);
+        return this;
+    }
+
+    /**
+     * @param defaultTtl lifetime of the tokens without an {@code exp} claim, five minutes by default
+     * @param unit       unit of {@code defaultTtl}
+     * @return this provider
+     */
+    public JWTTokenProvider defaultTtl(long defaultTtl, TimeUnit unit) {
+        this.defaultTtlMillis = unit.toMillis(defaultTtl);
+        return this;
+    }
+
+    /**
+     * @param retry time between background refresh attempts after a failed login, five seconds by default
+     * @param unit  unit of {@code retry}
+     * @return this provider
+     */
+    public JWTTokenProvider retry(long retry, TimeUnit unit) {
+        this.retryMillis = unit.toMillis(retry);
+        return this;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Token current = token;
+        if (current == null || current.isExpired(System.currentTimeMillis())) {
+            current = refresh(current);
+        }
+        template.header("Authorization", current.header);
+    }
+
+    /**
+     * @return milliseconds since the epoch when the current token expires, 0 before the first login
+     */
+    public long expiresAt() {
+        Token current = token;
+        return current == null ? 0 : current.expiresAt;
+    }
+
+    /**
+     * Stops the background refresh.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        ScheduledFuture<?> refresh = scheduledRefresh.getAndSet(null);
+        if (refresh != null) {
+            refresh.cancel(false);
+        }
+    }
+
+    /**
+     * @param stale token to replace, {@code null} before the first login
+     */
+    private Token refresh(Token stale) {
+        while (true) {
+            CompletableFuture<Token> inFlight = login.get();
+            if (inFlight != null) {
+                return join(inFlight);
+            }
+            CompletableFuture<Token> mine = new CompletableFuture<>();
+            if (login.compareAndSet(null, mine)) {
+                try {
+                    Token current = token;
+                    if (current != stale && current != null && !current.isExpired(System.currentTimeMillis())) {
+                        // another thread logged in between reading the token and winning the login
+                        mine.complete(current);
+                    } else {
+                        Token fresh = login();
+                        token = fresh;
+                        mine.complete(fresh);
+                        schedule(refreshDelay(fresh.expiresAt, System.currentTimeMillis()));
+                    }
+                } catch (RuntimeException e) {
+                    mine.completeExceptionally(e);
+                } finally {
+                    login.set(null);
+                }
+                return join(mine);
+            }
+        }
+    }
+
+    /**
+     * @return milliseconds until the background refresh of a token expiring at {@code expiresAt}
+     */
+    long refreshDelay(long expiresAt, long now) {
+        long remaining = expiresAt - now;
+        return Math.max(retryMillis, Math.max(remaining - refreshAheadMillis, remaining / 2));
+    }
+
+    private static Token join(CompletableFuture<Token> login) {
+        try {
+            return login.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    private void backgroundRefresh() {
+        try {
+            refresh(token);
+        } catch (RuntimeException e) {
+            LOGGER.warn("JWT token refresh failed, retrying in {} ms", retryMillis, e);
+            schedule(retryMillis);
+        }
+    }
+
+    private void schedule(long delayMillis) {
+        if (closed) {
+            return;
+        }
+        ScheduledFuture<?> next = SCHEDULER.schedule(this::backgroundRefresh, delayMillis, TimeUnit.MILLISECONDS);
+        ScheduledFuture<?> previous = scheduledRefresh.getAndSet(next);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private Token login() {
+        Optional<String> header = jwtClient.getToken();
+        if (!header.isPresent() || NOT_DEFINED.equals(header.get())) {
+            throw new IllegalStateException("JWT login did not return an authorization token");
+        }
+        return new Token(header.get(), expiresAt(header.get()));
+    }
+
+    private long expiresAt(String header) {
+        String jwt = header.startsWith(BEARER) ? header.substring(BEARER.length()) : header;
+        String[] parts = jwt.split("\\.");
+        if (parts.length >= 2) {
+            try {
+                JsonNode exp = CodecRegistry.defaultMapper()
+                        .readTree(Base64.getUrlDecoder().decode(parts[1]))
+                        .get("exp");
+                if (exp != null && exp.canConvertToLong()) {
+                    long expiresAt = TimeUnit.SECONDS.toMillis(exp.asLong());
+                    if (expiresAt > System.currentTimeMillis()) {
+                        return expiresAt;
+                    }
+                    LOGGER.warn("JWT token expired at {} on receipt, check the clock skew; using the default ttl",
+                            expiresAt);
+                }
+            } catch (IOException | IllegalArgumentException e) {
+                LOGGER.debug("JWT token claims cannot be read, using the default ttl", e);
+            }
+        }
+        return System.currentTimeMillis() + defaultTtlMillis;
+    }
+
+    private static ScheduledExecutorService newScheduler() {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "rest-client-jwt-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.setRemoveOnCancelPolicy(true);
+        return scheduler;
+    }
+
+    private static final class Token {
+
+        private final String header;
+        private final long expiresAt;
+
+        private Token(String header, long expiresAt) {
+            this.header = header;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package keal.ec.rest.client.balance;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * Sends every request to the endpoint chosen by a {@link LoadBalancer}, replacing the {@link LoadBalancer#BASE_URL}
+ * prefix of its URL, and reports the outcome back to the balancer.
+ */
+public final class BalancingClient implements Client {
+
+    private final Client delegate;
+    private final LoadBalancer balancer;
+
+    public BalancingClient(Client delegate, LoadBalancer balancer) {
+        this.delegate = delegate;
+        this.balancer = balancer;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String url = request.url();
+        if (!url.startsWith(LoadBalancer.BASE_URL)) {
+            return delegate.execute(request, options);
+        }
+        Endpoint endpoint = balancer.choose();
+        Request balanced = Request.create(request.method(),
+                endpoint.url() + url.substring(LoadBalancer.BASE_URL.length()),
+                request.headers(), request.body(), request.charset());
+        endpoint.start();
+        long start = System.nanoTime();
+        try {
+            Response response = delegate.execute(balanced, options);
+            if (response.status() >= 500) {
+                balancer.failure(endpoint, System.nanoTime() - start);
+            } else {
+                balancer.success(endpoint, System.nanoTime() - start);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            balancer.failure(endpoint, System.nanoTime() - start);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package keal.ec.rest.client.balance;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load and health of one endpoint: requests in flight, latency EWMA and the passive ejection state.
+ */
+final class Endpoint {
+
+    private static final double ALPHA = 0.3;
+
+    private final String url;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double latencyNanos;
+    private int consecutiveFailures;
+    private int ejections;
+    private volatile long ejectedUntilNanos;
+
+    Endpoint(String url) {
+        this.url = url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    String url() {
+        return url;
+    }
+
+    double score() {
+        // latency is in microseconds so the in-flight count still weighs on endpoints not measured yet
+        return (latencyNanos / 1000 + 1) * (inFlight.get() + 1);
+    }
+
+    boolean isAvailable(long now) {
+        return ejectedUntilNanos - now <= 0;
+    }
+
+    long ejectedUntilNanos() {
+        return ejectedUntilNanos;
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    synchronized void success(long elapsedNanos) {
+        inFlight.decrementAndGet();
+        latencyNanos = latencyNanos == 0 ? elapsedNanos : latencyNanos + (elapsedNanos - latencyNanos) * ALPHA;
+        consecutiveFailures = 0;
+        ejections = 0;
+    }
+
+    synchronized void failure(long elapsedNanos, int ejectAfter, long baseBackoffNanos, long maxBackoffNanos) {
+        inFlight.decrementAndGet();
+        latencyNanos = Math.max(latencyNanos, elapsedNanos);
+        if (++consecutiveFailures >= ejectAfter) {
+            long backoff = baseBackoffNanos << Math.min(ejections, 30);
+            if (backoff <= 0 || backoff > maxBackoffNanos) {
+                backoff = maxBackoffNanos;
+            }
+            ejections++;
+            consecutiveFailures = 0;
+            ejectedUntilNanos = System.nanoTime() + backoff;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return url + " (in flight " + inFlight.get() + ", latency " + TimeUnit.NANOSECONDS.toMillis((long) latencyNanos)
+                + " ms)";
+    }
+}
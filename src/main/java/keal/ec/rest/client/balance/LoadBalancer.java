@@ -0,0 +1,192 @@
+package keal.ec.rest.client.balance;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Client-side load balancer over the replicas of a service. Every request goes to the better of two randomly
+ * picked endpoints (power of two choices), scored by latency EWMA times requests in flight.
+ * <p>
+ * Endpoints are ejected passively: after {@link #ejectAfter(int)} consecutive failures (I/O errors or 5xx
+ * responses) an endpoint receives no traffic for a backoff that doubles on every ejection, then it gets traffic
+ * again. When every endpoint is ejected the one coming back first is used.
+ */
+public final class LoadBalancer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadBalancer.class);
+
+    /**
+     * Base URL of the Feign target of a balanced client, replaced by the chosen endpoint on every request.
+     */
+    public static final String BASE_URL = "http://load-balanced";
+
+    private Supplier<List<String>> endpointSupplier = Collections::emptyList;
+    private long refreshNanos = TimeUnit.SECONDS.toNanos(10);
+    private int ejectAfter = 3;
+    private long baseBackoffNanos = TimeUnit.SECONDS.toNanos(1);
+    private long maxBackoffNanos = TimeUnit.SECONDS.toNanos(30);
+
+    private volatile List<Endpoint> endpoints = Collections.emptyList();
+    private volatile long refreshedAtNanos;
+    private volatile boolean stale = true;
+
+    public static LoadBalancer get() {
+        return new LoadBalancer();
+    }
+
+    /**
+     * @param urls base URLs of the replicas
+     * @return this balancer
+     */
+    public LoadBalancer endpoints(List<String> urls) {
+        List<String> fixed = Collections.unmodifiableList(new ArrayList<>(urls));
+        return endpoints(() -> fixed);
+    }
+
+    /**
+     * @param supplier source of the base URLs of the replicas, such as a service registry; it is asked again
+     *                 every {@link #refresh(long, TimeUnit)} interval and the state of the known endpoints is kept;
+     *                 when it fails the known endpoints are used until the next interval
+     * @return this balancer
+     */
+    public LoadBalancer endpoints(Supplier<List<String>> supplier) {
+        this.endpointSupplier = Objects.requireNonNull(supplier, "supplier");
+        this.stale = true;
+        return this;
+    }
+
+    /**
+     * @param interval time between two reads of the endpoint supplier, 10 seconds by default
+     * @param unit     unit of {@code interval}
+     * @return this balancer
+     */
+    public LoadBalancer refresh(long interval, TimeUnit unit) {
+        this.refreshNanos = unit.toNanos(interval);
+        return this;
+    }
+
+    /**
+     * @param consecutiveFailures consecutive failures ejecting an endpoint, 3 by default
+     * @return this balancer
+     */
+    public LoadBalancer ejectAfter(int consecutiveFailures) {
+        if (consecutiveFailures < 1) {
+            throw new IllegalArgumentException("consecutiveFailures must be at least 1");
+        }
+        this.ejectAfter = consecutiveFailures;
+        return this;
+    }
+
+    /**
+     * @param base ejection time of the first ejection, 1 second by default
+     * @param max  maximum ejection time, 30 seconds by default
+     * @param unit unit of both values
+     * @return this balancer
+     */
+    public LoadBalancer ejectionBackoff(long base, long max, TimeUnit unit) {
+        this.baseBackoffNanos = unit.toNanos(base);
+        this.maxBackoffNanos = unit.toNanos(max);
+        return this;
+    }
+
+    /**
+     * @return base URLs of the endpoints currently receiving traffic
+     */
+    public List<String> availableEndpoints() {
+        long now = System.nanoTime();
+        return endpoints().stream()
+                .filter(endpoint -> endpoint.isAvailable(now))
+                .map(Endpoint::url)
+                .collect(Collectors.toList());
+    }
+
+    Endpoint choose() {
+        List<Endpoint> all = endpoints();
+        if (all.isEmpty()) {
+            throw new IllegalStateException("No endpoints to balance");
+        }
+        long now = System.nanoTime();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int size = all.size();
+        int firstIndex = random.nextInt(size);
+        Endpoint first = all.get(firstIndex);
+        Endpoint second = size == 1 ? first : all.get((firstIndex + 1 + random.nextInt(size - 1)) % size);
+        boolean firstAvailable = first.isAvailable(now);
+        boolean secondAvailable = second.isAvailable(now);
+        if (firstAvailable && secondAvailable) {
+            return first.score() <= second.score() ? first : second;
+        }
+        if (firstAvailable || secondAvailable) {
+            return firstAvailable ? first : second;
+        }
+        for (int i = 0; i < size; i++) {
+            Endpoint candidate = all.get((firstIndex + i) % size);
+            if (candidate.isAvailable(now)) {
+                return candidate;
+            }
+        }
+        return comingBackFirst(all);
+    }
+
+    void success(Endpoint endpoint, long elapsedNanos) {
+        endpoint.success(elapsedNanos);
+    }
+
+    void failure(Endpoint endpoint, long elapsedNanos) {
+        endpoint.failure(elapsedNanos, ejectAfter, baseBackoffNanos, maxBackoffNanos);
+    }
+
+    private List<Endpoint> endpoints() {
+        long now = System.nanoTime();
+        if (stale || now - refreshedAtNanos >= refreshNanos) {
+            synchronized (this) {
+                if (stale || now - refreshedAtNanos >= refreshNanos) {
+                    try {
+                        endpoints = merge(endpoints, Objects.requireNonNull(endpointSupplier.get(), "endpoints"));
+                    } catch (RuntimeException e) {
+                        // a registry outage must not fail the requests, the known endpoints are still usable
+                        LOGGER.error("Endpoint supplier failed, keeping the {} known endpoints until the next refresh",
+                                endpoints.size(), e);
+                    }
+                    refreshedAtNanos = now;
+                    stale = false;
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    private static List<Endpoint> merge(List<Endpoint> current, List<String> urls) {
+        List<Endpoint> merged = new ArrayList<>(urls.size());
+        for (String url : urls) {
+            Endpoint endpoint = new Endpoint(url);
+            for (Endpoint known : current) {
+                if (known.url().equals(endpoint.url())) {
+                    endpoint = known;
+                    break;
+                }
+            }
+            merged.add(endpoint);
+        }
+        return Collections.unmodifiableList(merged);
+    }
+
+    private static Endpoint comingBackFirst(List<Endpoint> all) {
+        Endpoint best = all.get(0);
+        for (Endpoint endpoint : all) {
+            if (endpoint.ejectedUntilNanos() - best.ejectedUntilNanos() < 0) {
+                best = endpoint;
+            }
+        }
+        return best;
+    }
+}
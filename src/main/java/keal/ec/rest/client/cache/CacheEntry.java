@@ -0,0 +1,124 @@
+package keal.ec.rest.client.cache;
+
+import feign.Request;
+import feign.Response;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+final class CacheEntry {
+
+    private final int status;
+    private final String reason;
+    private final Map<String, Collection<String>> headers;
+    private final byte[] body;
+    private final String etag;
+    private final String lastModified;
+    private final Map<String, Collection<String>> varying;
+    private volatile long expiresAt;
+    int frequency;
+
+    CacheEntry(Response response, byte[] body, long expiresAt) {
+        this(response, body, expiresAt, Collections.emptyMap());
+    }
+
+    /**
+     * @param varying values of the request headers named in the {@code Vary} header of the response
+     */
+    CacheEntry(Response response, byte[] body, long expiresAt, Map<String, Collection<String>> varying) {
+        this.status = response.status();
+        this.reason = response.reason();
+        this.headers = response.headers();
+        this.body = body;
+        this.etag = first(headers.get("ETag"));
+        this.lastModified = first(headers.get("Last-Modified"));
+        this.varying = varying;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @return whether the request carries the same values of the headers the response varies on
+     */
+    boolean matches(Request request) {
+        for (Map.Entry<String, Collection<String>> header : varying.entrySet()) {
+            if (!Objects.equals(header.getValue(), header(request, header.getKey()))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean isFresh(long now) {
+        return now < expiresAt;
+    }
+
+    void refresh(long expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    String etag() {
+        return etag;
+    }
+
+    String lastModified() {
+        return lastModified;
+    }
+
+    int size() {
+        return body.length;
+    }
+
+    Response toResponse(Request request) {
+        return Response.builder()
+                .status(status)
+                .reason(reason)
+                .headers(headers)
+                .body(body)
+                .request(request)
+                .build();
+    }
+
+    /**
+     * @return the values of the request headers named in the {@code Vary} header of the response, {@code null}
+     * when the response varies on everything ({@code Vary: *})
+     */
+    static Map<String, Collection<String>> varying(Response response, Request request) {
+        Collection<String> vary = response.headers().get("Vary");
+        if (vary == null || vary.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, Collection<String>> varying = new LinkedHashMap<>();
+        for (String value : vary) {
+            for (String name : value.split(",")) {
+                String trimmed = name.trim();
+                if ("*".equals(trimmed)) {
+                    return null;
+                }
+                if (!trimmed.isEmpty()) {
+                    varying.put(trimmed, header(request, trimmed));
+                }
+            }
+        }
+        return varying;
+    }
+
+    private static Collection<String> header(Request request, String name) {
+        for (Map.Entry<String, Collection<String>> header : request.headers().entrySet()) {
+            if (name.equalsIgnoreCase(header.getKey())) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    static String first(Collection<String> values) {
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+}
@@ -0,0 +1,67 @@
+package keal.ec.rest.client.cache;
+
+import feign.Request;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Key of a cached response: the request method, URL and body, and a digest of the {@code Authorization} header so
+ * the responses of one caller are never served to another.
+ */
+final class CacheKey {
+
+    private static final String AUTHORIZATION = "Authorization";
+
+    private final String method;
+    private final String url;
+    private final byte[] body;
+    private final byte[] authorization;
+    private final int hash;
+
+    CacheKey(Request request) {
+        this.method = request.method();
+        this.url = request.url();
+        this.body = request.body();
+        this.authorization = digest(request.headers().get(AUTHORIZATION));
+        this.hash = 31 * (31 * (31 * method.hashCode() + url.hashCode()) + Arrays.hashCode(body))
+                + Arrays.hashCode(authorization);
+    }
+
+    private static byte[] digest(Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String value : values) {
+                digest.update(value.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CacheKey)) {
+            return false;
+        }
+        CacheKey that = (CacheKey) o;
+        return hash == that.hash && method.equals(that.method) && url.equals(that.url)
+                && Arrays.equals(body, that.body) && Arrays.equals(authorization, that.authorization);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,25 @@
+package keal.ec.rest.client.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an idempotent api method whose responses are kept in the {@link ResponseCache} of the client, keyed by the
+ * request method, URL, body and {@code Authorization} header, so callers with other credentials never share a
+ * response. A kept response is only served to requests with the same values of the headers named in its
+ * {@code Vary} header, and responses with {@code Vary: *} are not kept. A {@code Cache-Control} response header
+ * takes precedence over the {@link #ttl()}: {@code no-store} responses are not kept, {@code no-cache} responses
+ * are revalidated on every call and {@code max-age} sets their freshness. Stale responses carrying an
+ * {@code ETag} or {@code Last-Modified} header are revalidated with a conditional request.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface CachedResponse {
+
+    /**
+     * @return milliseconds a response is fresh when the server does not send a {@code max-age}
+     */
+    long ttl() default 60_000;
+}
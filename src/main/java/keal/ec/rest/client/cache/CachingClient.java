@@ -0,0 +1,143 @@
+package keal.ec.rest.client.cache;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.Util;
+import keal.ec.rest.client.transport.MethodTags;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Client decorator answering the calls of the {@link CachedResponse} api methods from a {@link ResponseCache}.
+ * Requests of other methods go straight to the delegate client. Requires the requests to carry the
+ * {@link MethodTags method tag}.
+ */
+public class CachingClient implements Client {
+
+    private final Client delegate;
+    private final ResponseCache cache;
+    private final Map<String, CachedResponse> cachedMethods;
+
+    /**
+     * @param delegate      client sending the requests
+     * @param cache         cache of the responses
+     * @param cachedMethods cache policy by Feign config key of the api method
+     */
+    public CachingClient(Client delegate, ResponseCache cache, Map<String, CachedResponse> cachedMethods) {
+        this.delegate = delegate;
+        this.cache = cache;
+        this.cachedMethods = Collections.unmodifiableMap(new LinkedHashMap<>(cachedMethods));
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String methodKey = MethodTags.methodKey(request);
+        CachedResponse policy = methodKey == null ? null : cachedMethods.get(methodKey);
+        if (policy == null) {
+            return delegate.execute(request, options);
+        }
+        CacheKey key = new CacheKey(request);
+        CacheEntry entry = cache.lookup(key);
+        if (entry != null && !entry.matches(request)) {
+            entry = null;
+        }
+        if (entry != null && entry.isFresh(System.currentTimeMillis())) {
+            cache.hit();
+            return entry.toResponse(request);
+        }
+        boolean conditional = entry != null && entry.hasValidators();
+        Response response = delegate.execute(conditional ? conditional(request, entry) : request, options);
+        if (conditional && response.status() == 304) {
+            Util.ensureClosed(response.body());
+            cache.revalidated();
+            entry.refresh(expiresAt(response, policy));
+            return entry.toResponse(request);
+        }
+        cache.miss();
+        return store(key, request, response, policy);
+    }
+
+    private Response store(CacheKey key, Request request, Response response, CachedResponse policy)
+            throws IOException {
+        if (response.status() != 200 || response.body() == null || noStore(response)) {
+            return response;
+        }
+        Map<String, Collection<String>> varying = CacheEntry.varying(response, request);
+        if (varying == null) {
+            return response;
+        }
+        Integer length = response.body().length();
+        if (length != null && length > cache.maxBytes()) {
+            return response;
+        }
+        byte[] body;
+        try {
+            body = Util.toByteArray(response.body().asInputStream());
+        } finally {
+            Util.ensureClosed(response.body());
+        }
+        cache.store(key, new CacheEntry(response, body, expiresAt(response, policy), varying));
+        return response.toBuilder().body(body).build();
+    }
+
+    private static Request conditional(Request request, CacheEntry entry) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        if (entry.etag() != null) {
+            headers.put("If-None-Match", Collections.singletonList(entry.etag()));
+        }
+        if (entry.lastModified() != null) {
+            headers.put("If-Modified-Since", Collections.singletonList(entry.lastModified()));
+        }
+        return Request.create(request.method(), request.url(), headers, request.body(), request.charset());
+    }
+
+    private static boolean noStore(Response response) {
+        return directive(response, "no-store") != null;
+    }
+
+    private static long expiresAt(Response response, CachedResponse policy) {
+        long now = System.currentTimeMillis();
+        if (directive(response, "no-cache") != null) {
+            return now;
+        }
+        String maxAge = directive(response, "max-age");
+        if (maxAge != null) {
+            try {
+                return now + Long.parseLong(maxAge) * 1000;
+            } catch (NumberFormatException ignored) { // NOPMD
+            }
+        }
+        return now + policy.ttl();
+    }
+
+    /**
+     * @return the value of the {@code Cache-Control} directive, an empty string for a directive without value, or
+     * {@code null} when absent
+     */
+    private static String directive(Response response, String name) {
+        Collection<String> values = response.headers().get("Cache-Control");
+        if (values == null) {
+            return null;
+        }
+        for (String value : values) {
+            for (String directive : value.split(",")) {
+                String trimmed = directive.trim();
+                if (trimmed.regionMatches(true, 0, name, 0, name.length())) {
+                    String rest = trimmed.substring(name.length()).trim();
+                    if (rest.isEmpty()) {
+                        return rest;
+                    }
+                    if (rest.charAt(0) == '=') {
+                        return rest.substring(1).trim().replace("\"", "");
+                    }
+                }
+            }
+        }
+        return null;
+    }
+}
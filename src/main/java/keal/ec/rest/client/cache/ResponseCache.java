@@ -0,0 +1,158 @@
+package keal.ec.rest.client.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Size bounded cache of the responses of the {@link CachedResponse} api methods, bounded by number of entries and
+ * by body bytes. Entries are evicted least recently used first, or least frequently used first among the
+ * {@value #LFU_SAMPLE} least recently used ones. Hit, miss, revalidation and eviction counters are kept.
+ * <p>
+ * A cache instance may be shared by several clients; clients sending different credentials should not share one.
+ */
+public class ResponseCache {
+
+    static final int LFU_SAMPLE = 16;
+
+    /**
+     * Eviction policy applied when the cache is full.
+     */
+    public enum Eviction {
+        LRU,
+        LFU
+    }
+
+    private int maxEntries = 1000;
+    private long maxBytes = 16L * 1024 * 1024;
+    private Eviction eviction = Eviction.LRU;
+
+    private final LinkedHashMap<CacheKey, CacheEntry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder revalidations = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public static ResponseCache get() {
+        return new ResponseCache();
+    }
+
+    public ResponseCache maxEntries(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries < 1: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        return this;
+    }
+
+    public ResponseCache maxBytes(long maxBytes) {
+        if (maxBytes < 1) {
+            throw new IllegalArgumentException("maxBytes < 1: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+        return this;
+    }
+
+    public ResponseCache eviction(Eviction eviction) {
+        this.eviction = eviction;
+        return this;
+    }
+
+    /**
+     * @return calls answered from the cache without a request
+     */
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return calls sent to the server with no usable cache entry
+     */
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return stale entries confirmed by the server with a {@code 304 Not Modified}
+     */
+    public long revalidations() {
+        return revalidations.sum();
+    }
+
+    /**
+     * @return entries removed to respect the size bounds
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    long maxBytes() {
+        return maxBytes;
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void miss() {
+        misses.increment();
+    }
+
+    void revalidated() {
+        revalidations.increment();
+    }
+
+    synchronized CacheEntry lookup(CacheKey key) {
+        CacheEntry entry = entries.get(key);
+        if (entry != null && entry.frequency < Integer.MAX_VALUE) {
+            entry.frequency++;
+        }
+        return entry;
+    }
+
+    synchronized void store(CacheKey key, CacheEntry entry) {
+        if (entry.size() > maxBytes) {
+            return;
+        }
+        CacheEntry previous = entries.put(key, entry);
+        bytes += entry.size();
+        if (previous != null) {
+            bytes -= previous.size();
+        }
+        while (entries.size() > maxEntries || bytes > maxBytes) {
+            evict(key);
+        }
+    }
+
+    private void evict(CacheKey stored) {
+        Iterator<Map.Entry<CacheKey, CacheEntry>> iterator = entries.entrySet().iterator();
+        Map.Entry<CacheKey, CacheEntry> victim = iterator.next();
+        if (eviction == Eviction.LFU) {
+            for (int i = 1; i < LFU_SAMPLE && iterator.hasNext(); i++) {
+                Map.Entry<CacheKey, CacheEntry> candidate = iterator.next();
+                if (candidate.getKey() != stored && candidate.getValue().frequency < victim.getValue().frequency) {
+                    victim = candidate;
+                }
+            }
+        }
+        entries.remove(victim.getKey());
+        bytes -= victim.getValue().size();
+        evictions.increment();
+    }
+}
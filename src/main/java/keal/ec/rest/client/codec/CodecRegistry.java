@@ -0,0 +1,83 @@
+package keal.ec.rest.client.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Process-wide registry of Jackson codecs. Clients built with the same {@link ObjectMapper} share one encoder and
+ * one decoder, so the serializer and deserializer caches of the mapper stay warm across client builds.
+ * <p>
+ * Mappers registered here are expected to be long-lived, they are kept for the lifetime of the process.
+ */
+public final class CodecRegistry {
+
+    private static final ObjectMapper DEFAULT_MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(SerializationFeature.INDENT_OUTPUT, false)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final ConcurrentMap<ObjectMapper, Codec> CODECS = new ConcurrentHashMap<>();
+
+    private CodecRegistry() {
+    }
+
+    /**
+     * @return the shared mapper: compact output, null properties skipped and unknown properties ignored
+     */
+    public static ObjectMapper defaultMapper() {
+        return DEFAULT_MAPPER;
+    }
+
+    /**
+     * @param mapper mapper to encode with, or {@code null} for the shared mapper
+     * @return the encoder shared by every client using the given mapper
+     */
+    public static RestClientEncoder encoder(ObjectMapper mapper) {
+        return codec(mapper).encoder;
+    }
+
+    /**
+     * @param mapper mapper to encode with, or {@code null} for the shared mapper
+     * @return the streaming encoder shared by every client using the given mapper, it serializes request bodies
+     * directly into the connection
+     */
+    public static RestClientEncoder streamingEncoder(ObjectMapper mapper) {
+        return codec(mapper).streamingEncoder;
+    }
+
+    /**
+     * @param mapper mapper to decode with, or {@code null} for the shared mapper
+     * @return the decoder shared by every client using the given mapper
+     */
+    public static RestClientDecoder decoder(ObjectMapper mapper) {
+        return codec(mapper).decoder;
+    }
+
+    private static Codec codec(ObjectMapper mapper) {
+        ObjectMapper key = Objects.isNull(mapper) ? DEFAULT_MAPPER : mapper;
+        Codec codec = CODECS.get(key);
+        if (codec == null) {
+            codec = CODECS.computeIfAbsent(key, Codec::new);
+        }
+        return codec;
+    }
+
+    private static final class Codec {
+
+        private final RestClientEncoder encoder;
+        private final RestClientEncoder streamingEncoder;
+        private final RestClientDecoder decoder;
+
+        private Codec(ObjectMapper mapper) {
+            this.encoder = new RestClientEncoder(mapper, false);
+            this.streamingEncoder = new RestClientEncoder(mapper, true);
+            this.decoder = new RestClientDecoder(mapper);
+        }
+    }
+}
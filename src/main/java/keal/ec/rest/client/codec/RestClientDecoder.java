@@ -0,0 +1,118 @@
+package keal.ec.rest.client.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import feign.Response;
+import feign.Util;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Jackson response body decoder, keeps one {@link ObjectReader} per return type and reads the body bytes directly,
+ * letting Jackson detect the JSON encoding.
+ * <p>
+ * {@code Iterator<T>} and {@code Stream<T>} return types are decoded incrementally from a JSON array: the response
+ * stays open and each element is bound when the caller reaches it. The response is closed when the iteration ends
+ * or the stream is closed, so callers that stop early must close the stream. Any other type is read whole and the
+ * response is closed here, which requires the Feign builder to be configured with {@code doNotCloseAfterDecode()}.
+ */
+public class RestClientDecoder implements Decoder {
+
+    private final ObjectMapper mapper;
+    private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    RestClientDecoder(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException {
+        if (type instanceof ParameterizedType) {
+            Type rawType = ((ParameterizedType) type).getRawType();
+            if (rawType == Iterator.class || rawType == Stream.class) {
+                Type elementType = ((ParameterizedType) type).getActualTypeArguments()[0];
+                if (elementType instanceof WildcardType) {
+                    elementType = ((WildcardType) elementType).getUpperBounds()[0];
+                }
+                return decodeStreaming(response, rawType, elementType);
+            }
+        }
+        try {
+            return decodeValue(response, type);
+        } finally {
+            Util.ensureClosed(response.body());
+        }
+    }
+
+    private Object decodeValue(Response response, Type type) throws IOException {
+        if (response.status() == 404) {
+            return Util.emptyValueOf(type);
+        }
+        if (response.body() == null) {
+            return null;
+        }
+        PushbackInputStream body = new PushbackInputStream(response.body().asInputStream(), 1);
+        int first = body.read();
+        if (first == -1) {
+            // an empty body is a null value, Jackson would fail with "No content to map due to end-of-input"
+            return null;
+        }
+        body.unread(first);
+        return read(body, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object decodeStreaming(Response response, Type rawType, Type elementType) throws IOException {
+        Iterator<Object> iterator;
+        if (response.status() == 404 || response.body() == null) {
+            Util.ensureClosed(response.body());
+            iterator = Collections.emptyIterator();
+        } else {
+            JsonParser parser = mapper.getFactory().createParser(response.body().asInputStream());
+            iterator = new StreamingIterator<>(response, parser, reader(elementType));
+        }
+        if (rawType == Iterator.class) {
+            return iterator;
+        }
+        Stream<Object> stream = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+        return iterator instanceof StreamingIterator
+                ? stream.onClose(((StreamingIterator<Object>) iterator)::close) : stream;
+    }
+
+    private Object read(InputStream body, Type type) throws IOException {
+        try {
+            return reader(type).readValue(body);
+        } catch (RuntimeJsonMappingException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private ObjectReader reader(Type type) {
+        ObjectReader reader = readers.get(type);
+        if (reader == null) {
+            reader = readers.computeIfAbsent(type,
+                    key -> mapper.readerFor(mapper.getTypeFactory().constructType(key)));
+        }
+        return reader;
+    }
+}
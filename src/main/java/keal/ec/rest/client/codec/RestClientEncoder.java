@@ -0,0 +1,97 @@
+package keal.ec.rest.client.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import feign.RequestTemplate;
+import feign.codec.EncodeException;
+import feign.codec.Encoder;
+import keal.ec.rest.client.transport.StreamingBodies;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Jackson request body encoder, keeps one {@link ObjectWriter} per body type and writes the body straight to UTF-8
+ * bytes without an intermediate {@code String}.
+ * <p>
+ * {@link InputStream} and {@link Path} bodies are copied to the connection as they are read. A streaming encoder
+ * serializes every other body directly into the connection as well, instead of building the whole {@code byte[]}
+ * first; those bodies are sent chunked and cannot be replayed by the retryer.
+ */
+public class RestClientEncoder implements Encoder {
+
+    private final ObjectMapper mapper;
+    private final boolean streaming;
+    private final ConcurrentMap<Type, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    RestClientEncoder(ObjectMapper mapper, boolean streaming) {
+        this.mapper = mapper;
+        this.streaming = streaming;
+    }
+
+    @Override
+    public void encode(Object object, Type bodyType, RequestTemplate template) {
+        if (object instanceof InputStream) {
+            StreamingBodies.attach(template, out -> copy((InputStream) object, out));
+            return;
+        }
+        if (object instanceof Path) {
+            Path path = (Path) object;
+            StreamingBodies.attach(template, new StreamingBodies.BodyWriter() {
+                @Override
+                public void writeTo(OutputStream out) throws IOException {
+                    Files.copy(path, out);
+                }
+
+                @Override
+                public long contentLength() {
+                    try {
+                        return Files.size(path);
+                    } catch (IOException e) {
+                        return -1;
+                    }
+                }
+            });
+            return;
+        }
+        if (streaming) {
+            ObjectWriter writer = writer(bodyType).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            StreamingBodies.attach(template, out -> writer.writeValue(out, object));
+            return;
+        }
+        StreamingBodies.clear();
+        try {
+            template.body(writer(bodyType).writeValueAsBytes(object), StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new EncodeException(e.getMessage(), e);
+        }
+    }
+
+    private static void copy(InputStream in, OutputStream out) throws IOException {
+        try (InputStream body = in) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+        }
+    }
+
+    private ObjectWriter writer(Type bodyType) {
+        ObjectWriter writer = writers.get(bodyType);
+        if (writer == null) {
+            writer = writers.computeIfAbsent(bodyType,
+                    type -> mapper.writerFor(mapper.getTypeFactory().constructType(type)));
+        }
+        return writer;
+    }
+}
@@ -0,0 +1,88 @@
+package keal.ec.rest.client.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import feign.Response;
+import feign.Util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterator over the elements of a JSON array response body, each element is bound when it is reached so only one
+ * of them is held in memory. The response is closed when the array ends, when reading fails or on {@link #close()}.
+ */
+class StreamingIterator<T> implements Iterator<T>, Closeable {
+
+    private final Response response;
+    private final JsonParser parser;
+    private final ObjectReader reader;
+    private JsonToken current;
+    private boolean closed;
+
+    StreamingIterator(Response response, JsonParser parser, ObjectReader reader) throws IOException {
+        this.response = response;
+        this.parser = parser;
+        this.reader = reader;
+        try {
+            JsonToken start = parser.nextToken();
+            if (start == null) {
+                close();
+            } else if (start != JsonToken.START_ARRAY) {
+                throw new IOException("Expected a JSON array but found " + start);
+            }
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (closed) {
+            return false;
+        }
+        try {
+            if (current == null) {
+                current = parser.nextToken();
+            }
+            if (current == null || current == JsonToken.END_ARRAY) {
+                close();
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            T element = (T) reader.readValue(parser);
+            current = null;
+            return element;
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            Util.ensureClosed(parser);
+            Util.ensureClosed(response.body());
+        }
+    }
+}
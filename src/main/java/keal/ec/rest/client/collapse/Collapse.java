@@ -0,0 +1,40 @@
+package keal.ec.rest.client.collapse;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a single-argument api method whose concurrent calls are gathered into a single call of a batch method of
+ * the same interface. The batch method takes a {@link java.util.List} of the arguments and returns a
+ * {@link java.util.List} with one response per argument, in the same order; its request line is the batch
+ * endpoint.
+ * <pre>{@code
+ * @Collapse(batchMethod = "processAll", window = 5)
+ * @RequestLine("POST /order/")
+ * OrderResponse process(Order order);
+ *
+ * @RequestLine("POST /orders/batch/")
+ * List<OrderResponse> processAll(List<Order> orders);
+ * }</pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Collapse {
+
+    /**
+     * @return name of the batch method
+     */
+    String batchMethod();
+
+    /**
+     * @return milliseconds calls are gathered before the batch is sent
+     */
+    int window() default 10;
+
+    /**
+     * @return calls sent in a batch at most, further calls wait for the next batch
+     */
+    int maxBatchSize() default 100;
+}
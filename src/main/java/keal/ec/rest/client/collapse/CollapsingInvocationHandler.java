@@ -0,0 +1,312 @@
+package keal.ec.rest.client.collapse;
+
+import com.netflix.hystrix.HystrixCollapser;
+import com.netflix.hystrix.HystrixCollapserKey;
+import com.netflix.hystrix.HystrixCollapserProperties;
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.exception.HystrixRuntimeException;
+import feign.Feign;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Proxy of an api client sending the calls of its {@link Collapse} methods in batches, through a global scope
+ * Hystrix collapser per method. The remaining methods are called on the client directly.
+ * <p>
+ * Hystrix keeps one collapser per method for the whole process, shared by every client of the api interface. Each
+ * call therefore carries the client it was made on, and a batch holds the calls of a single client, so the calls
+ * of clients with other URLs or credentials never travel in the same batch. The window and the batch size come
+ * from the {@link Collapse} annotation of the interface and are the same for all its clients.
+ * <p>
+ * Batches run on a Hystrix thread pool of four threads per api interface, not on the collapser timer thread that also
+ * drives the Hystrix timeouts of the process, and time out like the calls of the client. A batch that fails or
+ * times out fails the calls of its own client only.
+ */
+public final class CollapsingInvocationHandler implements InvocationHandler {
+
+    private static final int DEFAULT_BATCH_TIMEOUT = 1000;
+    private static final int BATCH_THREADS = 4;
+
+    private final Object delegate;
+    private final Map<Method, CollapsedMethod> collapsedMethods;
+
+    private CollapsingInvocationHandler(Object delegate, Map<Method, CollapsedMethod> collapsedMethods) {
+        this.delegate = delegate;
+        this.collapsedMethods = collapsedMethods;
+    }
+
+    /**
+     * @param apiClass api interface
+     * @param client   client built for the api interface
+     * @param <T>      api interface type
+     * @return the client itself when no method is annotated with {@link Collapse}, otherwise a proxy collapsing
+     * the calls of the annotated methods, whose batches time out after one second
+     */
+    public static <T> T wrap(Class<T> apiClass, T client) {
+        return wrap(apiClass, client, DEFAULT_BATCH_TIMEOUT);
+    }
+
+    /**
+     * @param apiClass     api interface
+     * @param client       client built for the api interface
+     * @param batchTimeout milliseconds after which a batch fails with a {@code HystrixTimeoutException}
+     * @param <T>          api interface type
+     * @return the client itself when no method is annotated with {@link Collapse}, otherwise a proxy collapsing
+     * the calls of the annotated methods
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T wrap(Class<T> apiClass, T client, int batchTimeout) {
+        Map<Method, CollapsedMethod> collapsedMethods = new HashMap<>();
+        for (Method method : apiClass.getMethods()) {
+            Collapse collapse = method.getAnnotation(Collapse.class);
+            if (collapse != null) {
+                collapsedMethods.put(method, new CollapsedMethod(apiClass, client, method, collapse, batchTimeout));
+            }
+        }
+        if (collapsedMethods.isEmpty()) {
+            return client;
+        }
+        return (T) Proxy.newProxyInstance(apiClass.getClassLoader(), new Class<?>[]{apiClass},
+                new CollapsingInvocationHandler(client, Collections.unmodifiableMap(collapsedMethods)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if ("equals".equals(method.getName()) && method.getParameterCount() == 1) {
+            return proxy == args[0];
+        } else if ("hashCode".equals(method.getName()) && method.getParameterCount() == 0) {
+            return System.identityHashCode(proxy);
+        } else if ("toString".equals(method.getName()) && method.getParameterCount() == 0) {
+            return delegate.toString();
+        }
+        CollapsedMethod collapsedMethod = collapsedMethods.get(method);
+        if (collapsedMethod == null) {
+            try {
+                return method.invoke(delegate, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+        MethodCollapser collapser = new MethodCollapser(collapsedMethod, new ClientCall(collapsedMethod, args[0]));
+        if (collapsedMethod.async) {
+            CompletableFuture<Object> result = new CompletableFuture<>();
+            collapser.toObservable().subscribe(result::complete, cause -> result.completeExceptionally(unwrap(cause)));
+            return result;
+        }
+        try {
+            return collapser.execute();
+        } catch (HystrixRuntimeException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static Throwable unwrap(Throwable cause) {
+        if (cause instanceof HystrixRuntimeException && cause.getCause() != null) {
+            return cause.getCause();
+        }
+        return cause;
+    }
+
+    private static final class CollapsedMethod {
+
+        private final Object client;
+        private final Method batchMethod;
+        private final boolean async;
+        private final HystrixCollapser.Setter collapserSetter;
+        private final HystrixCommand.Setter batchSetter;
+
+        private CollapsedMethod(Class<?> apiClass, Object client, Method method, Collapse collapse,
+                                int batchTimeout) {
+            this.client = client;
+            this.batchMethod = batchMethod(apiClass, method, collapse.batchMethod());
+            this.async = method.getReturnType() == CompletableFuture.class;
+            this.collapserSetter = HystrixCollapser.Setter
+                    .withCollapserKey(HystrixCollapserKey.Factory.asKey(Feign.configKey(apiClass, method)))
+                    .andScope(HystrixCollapser.Scope.GLOBAL)
+                    .andCollapserPropertiesDefaults(HystrixCollapserProperties.Setter()
+                            .withTimerDelayInMilliseconds(collapse.window())
+                            .withMaxRequestsInBatch(collapse.maxBatchSize()));
+            // the collapser timer thread only hands the batch over to the pool of the interface; the command key
+            // differs from the one of the batch method so the properties of its own Hystrix command are kept
+            this.batchSetter = HystrixCommand.Setter
+                    .withGroupKey(HystrixCommandGroupKey.Factory.asKey(apiClass.getName()))
+                    .andCommandKey(HystrixCommandKey.Factory.asKey(
+                            Feign.configKey(apiClass, batchMethod) + "[batch,timeout=" + batchTimeout + "]"))
+                    .andThreadPoolKey(HystrixThreadPoolKey.Factory.asKey(apiClass.getName() + "[batches]"))
+                    .andThreadPoolPropertiesDefaults(HystrixThreadPoolProperties.Setter().withCoreSize(BATCH_THREADS))
+                    .andCommandPropertiesDefaults(HystrixCommandProperties.Setter()
+                            .withExecutionIsolationStrategy(
+                                    HystrixCommandProperties.ExecutionIsolationStrategy.THREAD)
+                            .withExecutionTimeoutInMilliseconds(batchTimeout)
+                            .withExecutionTimeoutEnabled(true));
+        }
+
+        private static Method batchMethod(Class<?> apiClass, Method method, String name) {
+            if (method.getParameterCount() != 1) {
+                throw new IllegalStateException(Feign.configKey(apiClass, method)
+                        + " is annotated with @Collapse but does not take a single argument");
+            }
+            try {
+                Method batchMethod = apiClass.getMethod(name, List.class);
+                if (!List.class.isAssignableFrom(batchMethod.getReturnType())) {
+                    throw new IllegalStateException(Feign.configKey(apiClass, batchMethod) + " must return a List");
+                }
+                return batchMethod;
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("batch method " + name + "(List) of "
+                        + Feign.configKey(apiClass, method) + " not found in " + apiClass.getName(), e);
+            }
+        }
+    }
+
+    /**
+     * Argument of a collapsed call, with the client it was made on.
+     */
+    private static final class ClientCall {
+
+        private final CollapsedMethod collapsedMethod;
+        private final Object argument;
+
+        private ClientCall(CollapsedMethod collapsedMethod, Object argument) {
+            this.collapsedMethod = collapsedMethod;
+            this.argument = argument;
+        }
+    }
+
+    /**
+     * Responses of a batch, or the failure of the batch method. Hystrix fails every request collapsed in the same
+     * window when a batch command fails, so the failure of one client is handed to its own requests instead.
+     */
+    private static final class BatchResult {
+
+        private final List<Object> responses;
+        private final Exception failure;
+
+        private BatchResult(List<Object> responses, Exception failure) {
+            this.responses = responses;
+            this.failure = failure;
+        }
+    }
+
+    private static final class MethodCollapser extends HystrixCollapser<BatchResult, Object, ClientCall> {
+
+        private final ClientCall call;
+
+        private MethodCollapser(CollapsedMethod collapsedMethod, ClientCall call) {
+            super(collapsedMethod.collapserSetter);
+            this.call = call;
+        }
+
+        @Override
+        public ClientCall getRequestArgument() {
+            return call;
+        }
+
+        @Override
+        protected Collection<Collection<CollapsedRequest<Object, ClientCall>>> shardRequests(
+                Collection<CollapsedRequest<Object, ClientCall>> requests) {
+            Map<CollapsedMethod, Collection<CollapsedRequest<Object, ClientCall>>> shards = new IdentityHashMap<>();
+            for (CollapsedRequest<Object, ClientCall> request : requests) {
+                shards.computeIfAbsent(request.getArgument().collapsedMethod, client -> new ArrayList<>())
+                        .add(request);
+            }
+            return shards.values();
+        }
+
+        @Override
+        protected HystrixCommand<BatchResult> createCommand(Collection<CollapsedRequest<Object, ClientCall>> requests) {
+            // this collapser may be the one of another client, the shard tells which client to call
+            CollapsedMethod collapsedMethod = requests.iterator().next().getArgument().collapsedMethod;
+            List<Object> arguments = new ArrayList<>(requests.size());
+            for (CollapsedRequest<Object, ClientCall> request : requests) {
+                arguments.add(request.getArgument().argument);
+            }
+            return new BatchCommand(collapsedMethod, arguments);
+        }
+
+        @Override
+        protected void mapResponseToRequests(BatchResult result,
+                                             Collection<CollapsedRequest<Object, ClientCall>> requests) {
+            String batchMethod = requests.iterator().next().getArgument().collapsedMethod.batchMethod.getName();
+            if (result.failure != null) {
+                HystrixRuntimeException failure = new HystrixRuntimeException(
+                        HystrixRuntimeException.FailureType.COMMAND_EXCEPTION, BatchCommand.class,
+                        batchMethod + " failed", result.failure, null);
+                for (CollapsedRequest<Object, ClientCall> request : requests) {
+                    request.setException(failure);
+                }
+                return;
+            }
+            List<Object> responses = result.responses;
+            Iterator<Object> response = responses == null ? Collections.emptyIterator() : responses.iterator();
+            for (CollapsedRequest<Object, ClientCall> request : requests) {
+                if (response.hasNext()) {
+                    request.setResponse(response.next());
+                } else {
+                    request.setException(new IllegalStateException(batchMethod + " returned "
+                            + (responses == null ? 0 : responses.size()) + " responses for "
+                            + requests.size() + " requests"));
+                }
+            }
+        }
+    }
+
+    private static final class BatchCommand extends HystrixCommand<BatchResult> {
+
+        private final CollapsedMethod collapsedMethod;
+        private final List<Object> arguments;
+
+        private BatchCommand(CollapsedMethod collapsedMethod, List<Object> arguments) {
+            super(collapsedMethod.batchSetter);
+            this.collapsedMethod = collapsedMethod;
+            this.arguments = arguments;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        protected BatchResult run() {
+            try {
+                return new BatchResult(
+                        (List<Object>) collapsedMethod.batchMethod.invoke(collapsedMethod.client, arguments), null);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) {
+                    return new BatchResult(null, (Exception) cause);
+                }
+                throw (Error) cause;
+            } catch (IllegalAccessException e) {
+                return new BatchResult(null, e);
+            }
+        }
+
+        /**
+         * Hands timeouts, rejections and short circuits to the requests of this batch only.
+         */
+        @Override
+        protected BatchResult getFallback() {
+            Throwable failure = getExecutionException();
+            if (failure instanceof Error) {
+                throw (Error) failure;
+            }
+            return new BatchResult(null, failure instanceof Exception ? (Exception) failure
+                    : new IllegalStateException(collapsedMethod.batchMethod.getName() + " failed"));
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 4xx client error responses without a more specific exception.
+ */
+public class ClientErrorException extends RestClientException {
+
+    protected ClientErrorException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
@@ -0,0 +1,67 @@
+package keal.ec.rest.client.error;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * Error response body as read by {@link RestClientErrorDecoder}: the raw, possibly truncated, bytes plus what is
+ * needed to read them as text or bind them to an error DTO on demand. A deserialized body no longer binds to error
+ * DTOs, its mapper is not serialized.
+ */
+public final class ErrorBody implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final byte[] bytes;
+    private final String charset;
+    private final boolean truncated;
+    private final transient ObjectMapper mapper;
+
+    ErrorBody(byte[] bytes, Charset charset, boolean truncated, ObjectMapper mapper) {
+        this.bytes = bytes;
+        this.charset = charset.name();
+        this.truncated = truncated;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return a copy of the body bytes
+     */
+    public byte[] bytes() {
+        return bytes.clone();
+    }
+
+    /**
+     * @return the body as text
+     */
+    public String asString() {
+        return new String(bytes, Charset.forName(charset));
+    }
+
+    /**
+     * @return whether the body was longer than the decoder limit and only its start was kept
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * @param type error DTO type
+     * @param <E>  error DTO type
+     * @return the body bound to the given type, empty when it is not valid JSON for it
+     */
+    public <E> Optional<E> as(Class<E> type) {
+        if (truncated || bytes.length == 0 || mapper == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.ofNullable(mapper.readValue(bytes, type));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Standard error body of the services, as written by Spring Boot: timestamp, status, reason phrase, message and
+ * request path.
+ */
+public class ErrorResponse {
+
+    private String timestamp;
+    private Integer status;
+    private String error;
+    private String message;
+    private String path;
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(String timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public Integer getStatus() {
+        return status;
+    }
+
+    public void setStatus(Integer status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+}
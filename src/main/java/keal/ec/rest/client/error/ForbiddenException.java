@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 403 Forbidden responses.
+ */
+public class ForbiddenException extends ClientErrorException {
+
+    protected ForbiddenException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
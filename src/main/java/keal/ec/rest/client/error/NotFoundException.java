@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 404 Not Found responses.
+ */
+public class NotFoundException extends ClientErrorException {
+
+    protected NotFoundException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
@@ -1,35 +1,91 @@
 package keal.ec.rest.client.error;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.Response;
-import feign.Util;
 import feign.codec.ErrorDecoder;
+import keal.ec.rest.client.codec.CodecRegistry;
+import okhttp3.MediaType;
 
 import java.io.IOException;
-
-import static java.lang.String.format;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
 
 /**
  * Custom Error Decoder for Rest Service Responses
+ * <p>
+ * Reads at most {@link #DEFAULT_MAX_BODY_BYTES} bytes of the error body by default, so large error pages do not
+ * end up in memory as a whole. The exception message is built from those bytes only when it is requested, and
+ * the body is bound to an error DTO with the client mapper only when the caller asks for it.
+ * <p>
+ * The exception type is looked up by status: {@link UnauthorizedException}, {@link ForbiddenException},
+ * {@link NotFoundException}, {@link TooManyRequestsException}, {@link ServiceUnavailableException}, otherwise
+ * {@link ClientErrorException} or {@link ServerErrorException}.
  *
  * @author Kleber Ayala
  */
 public class RestClientErrorDecoder implements ErrorDecoder {
 
+    public static final int DEFAULT_MAX_BODY_BYTES = 8 * 1024;
+
+    private final ObjectMapper mapper;
+    private final int maxBodyBytes;
+    private final boolean stackTraces;
+
+    public RestClientErrorDecoder() {
+        this(null, DEFAULT_MAX_BODY_BYTES, true);
+    }
+
+    /**
+     * @param mapper       mapper binding error bodies, or {@code null} for the shared mapper
+     * @param maxBodyBytes maximum number of body bytes kept on the exception, 0 to skip the body
+     * @param stackTraces  whether the exceptions capture their stack trace, HTTP errors are expected outcomes and
+     *                     their stack trace only points at the Feign internals
+     */
+    public RestClientErrorDecoder(ObjectMapper mapper, int maxBodyBytes, boolean stackTraces) {
+        if (maxBodyBytes < 0) {
+            throw new IllegalArgumentException("maxBodyBytes must not be negative");
+        }
+        this.mapper = mapper == null ? CodecRegistry.defaultMapper() : mapper;
+        this.maxBodyBytes = maxBodyBytes;
+        this.stackTraces = stackTraces;
+    }
+
     @Override
     public Exception decode(String methodKey, Response response) {
         return getErrorStatus(methodKey, response);
     }
 
     private RestClientException getErrorStatus(String methodKey, Response response) {
-        String message = format("status %s reading %s", response.status(), methodKey);
-        try {
-            if (response.body() != null) {
-                String body = Util.toString(response.body().asReader());
-                message += "; content:\n" + body;
+        ErrorBody body = null;
+        if (response.body() != null) {
+            try (InputStream in = response.body().asInputStream()) {
+                Integer length = response.body().length();
+                byte[] buffer = new byte[length == null ? maxBodyBytes : Math.min(length, maxBodyBytes)];
+                int read = 0;
+                int n;
+                while (read < buffer.length && (n = in.read(buffer, read, buffer.length - read)) != -1) {
+                    read += n;
+                }
+                boolean truncated = read == buffer.length && (length == null ? in.read() != -1 : length > read);
+                body = new ErrorBody(read == buffer.length ? buffer : Arrays.copyOf(buffer, read),
+                        charset(response), truncated, mapper);
+            } catch (IOException ignored) { // NOPMD
             }
-        } catch (IOException ignored) { // NOPMD
         }
-        return new RestClientException(response.status(), message);
+        return StatusTable.create(response.status(), methodKey, body, stackTraces);
     }
-}
 
+    private static Charset charset(Response response) {
+        Collection<String> contentType = response.headers().get("Content-Type");
+        if (contentType != null && !contentType.isEmpty()) {
+            MediaType mediaType = MediaType.parse(contentType.iterator().next());
+            if (mediaType != null) {
+                return mediaType.charset(StandardCharsets.UTF_8);
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+}
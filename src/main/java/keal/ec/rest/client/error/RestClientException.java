@@ -1,24 +1,115 @@
 package keal.ec.rest.client.error;
 
 
+import java.util.Optional;
+
 /**
  * Custom Exception for errors like invalid authorization, invalid keys, in general not valid server responses
+ * <p>
+ * The exceptions created by {@link RestClientErrorDecoder} are subclasses picked by status, see
+ * {@link ClientErrorException} and {@link ServerErrorException}. They keep the raw, possibly truncated, response
+ * body and only format the message or bind the body when asked to.
  *
  * @author Kleber Ayala
  */
 public class RestClientException extends RuntimeException {
 
     private final int status;
+    private final String methodKey;
+    private final ErrorBody body;
+    private volatile String message;
+    private transient volatile Optional<ErrorResponse> error;
 
 
     protected RestClientException(int status, String message) {
         super(message);
         this.status = status;
+        this.methodKey = null;
+        this.body = null;
+        this.message = message;
+    }
+
+    /**
+     * @param status             response status
+     * @param methodKey          Feign config key of the api method
+     * @param body               response body read by the decoder, {@code null} when the response had no body
+     * @param writableStackTrace whether the stack trace is captured
+     */
+    protected RestClientException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(null, null, true, writableStackTrace);
+        this.status = status;
+        this.methodKey = methodKey;
+        this.body = body;
     }
 
     public int status() {
         return status;
     }
 
+    /**
+     * @return whether the same request may succeed when sent again: 408, 429, 502, 503 and 504 responses
+     */
+    public boolean isRetryable() {
+        return StatusTable.isRetryable(status);
+    }
+
+    /**
+     * @return the response body bound to the standard {@link ErrorResponse}, empty when the body is not one
+     */
+    public Optional<ErrorResponse> error() {
+        Optional<ErrorResponse> parsed = error;
+        if (parsed == null) {
+            parsed = error(ErrorResponse.class);
+            error = parsed;
+        }
+        return parsed;
+    }
+
+    /**
+     * @param type error DTO type
+     * @param <E>  error DTO type
+     * @return the response body bound to the given type, empty when there is no body or it does not bind
+     */
+    public <E> Optional<E> error(Class<E> type) {
+        return body == null ? Optional.empty() : body.as(type);
+    }
+
+    /**
+     * @return a copy of the response body bytes read by the decoder, empty when the response had no body
+     */
+    public byte[] body() {
+        return body == null ? new byte[0] : body.bytes();
+    }
+
+    /**
+     * @return the response body read by the decoder as text, empty when the response had no body
+     */
+    public String bodyAsString() {
+        return body == null ? "" : body.asString();
+    }
+
+    /**
+     * @return whether the response body was longer than the decoder limit and only its start was kept
+     */
+    public boolean isTruncated() {
+        return body != null && body.isTruncated();
+    }
+
+    @Override
+    public String getMessage() {
+        String formatted = message;
+        if (formatted == null) {
+            StringBuilder builder = new StringBuilder("status ").append(status).append(" reading ").append(methodKey);
+            if (body != null) {
+                builder.append("; content:\n").append(body.asString());
+                if (body.isTruncated()) {
+                    builder.append("...");
+                }
+            }
+            formatted = builder.toString();
+            message = formatted;
+        }
+        return formatted;
+    }
 
 }
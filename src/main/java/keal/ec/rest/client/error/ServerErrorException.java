@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 5xx server error responses without a more specific exception.
+ */
+public class ServerErrorException extends RestClientException {
+
+    protected ServerErrorException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
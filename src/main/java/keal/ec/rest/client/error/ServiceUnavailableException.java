@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 503 Service Unavailable responses, retryable.
+ */
+public class ServiceUnavailableException extends ServerErrorException {
+
+    protected ServiceUnavailableException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
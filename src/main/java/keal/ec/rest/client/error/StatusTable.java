@@ -0,0 +1,51 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Status code to exception lookup, computed once so decoding an error is an array access.
+ */
+final class StatusTable {
+
+    @FunctionalInterface
+    interface ExceptionFactory {
+        RestClientException create(int status, String methodKey, ErrorBody body, boolean writableStackTrace);
+    }
+
+    private static final int SIZE = 600;
+    private static final ExceptionFactory[] FACTORIES = new ExceptionFactory[SIZE];
+    private static final boolean[] RETRYABLE = new boolean[SIZE];
+
+    static {
+        for (int status = 0; status < SIZE; status++) {
+            if (status >= 400 && status < 500) {
+                FACTORIES[status] = ClientErrorException::new;
+            } else if (status >= 500) {
+                FACTORIES[status] = ServerErrorException::new;
+            } else {
+                FACTORIES[status] = RestClientException::new;
+            }
+        }
+        FACTORIES[401] = UnauthorizedException::new;
+        FACTORIES[403] = ForbiddenException::new;
+        FACTORIES[404] = NotFoundException::new;
+        FACTORIES[429] = TooManyRequestsException::new;
+        FACTORIES[503] = ServiceUnavailableException::new;
+
+        RETRYABLE[408] = true;
+        RETRYABLE[429] = true;
+        RETRYABLE[502] = true;
+        RETRYABLE[503] = true;
+        RETRYABLE[504] = true;
+    }
+
+    private StatusTable() {
+    }
+
+    static RestClientException create(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        ExceptionFactory factory = status >= 0 && status < SIZE ? FACTORIES[status] : RestClientException::new;
+        return factory.create(status, methodKey, body, writableStackTrace);
+    }
+
+    static boolean isRetryable(int status) {
+        return status >= 0 && status < SIZE && RETRYABLE[status];
+    }
+}
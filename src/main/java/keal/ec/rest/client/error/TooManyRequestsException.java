@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 429 Too Many Requests responses, retryable.
+ */
+public class TooManyRequestsException extends ClientErrorException {
+
+    protected TooManyRequestsException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
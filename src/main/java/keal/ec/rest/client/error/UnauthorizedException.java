@@ -0,0 +1,11 @@
+package keal.ec.rest.client.error;
+
+/**
+ * Thrown for 401 Unauthorized responses.
+ */
+public class UnauthorizedException extends ClientErrorException {
+
+    protected UnauthorizedException(int status, String methodKey, ErrorBody body, boolean writableStackTrace) {
+        super(status, methodKey, body, writableStackTrace);
+    }
+}
@@ -0,0 +1,27 @@
+package keal.ec.rest.client.hedge;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks an idempotent api method whose slow calls are hedged: when the response has not arrived after the hedge
+ * delay a duplicate request is sent, to another endpoint when the client is load balanced, the first response
+ * wins and the other request is cancelled. Only methods that can safely run twice may be hedged.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface Hedged {
+
+    /**
+     * @return milliseconds to wait before hedging, or a negative value to wait for the {@link #percentile()} of
+     * the latencies observed for the method
+     */
+    long delay() default -1;
+
+    /**
+     * @return latency percentile used as the delay when {@link #delay()} is negative
+     */
+    double percentile() default 95;
+}
@@ -0,0 +1,216 @@
+package keal.ec.rest.client.hedge;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import keal.ec.rest.client.async.AsyncExecutors;
+import keal.ec.rest.client.retry.RetryBudget;
+import keal.ec.rest.client.transport.CallCancellation;
+import keal.ec.rest.client.transport.MethodTags;
+import keal.ec.rest.client.transport.StreamingBodies;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hedges the calls of the api methods annotated with {@link Hedged}. The request runs on the hedging executor
+ * while the caller waits for the hedge delay; past it, and if the hedge budget allows, a duplicate request is sent
+ * and the first successful response is returned. The other request is cancelled and its response, if any, closed.
+ * <p>
+ * Every hedged call deposits into the budget and every duplicate request withdraws from it, so the extra load is
+ * capped at a share of the hedged calls: 5% with the {@link #sharedBudget()}. Requests with a streaming body and
+ * calls rejected by the executor are sent once, on the calling thread.
+ */
+public final class HedgingClient implements Client {
+
+    private static final RetryBudget SHARED_BUDGET = RetryBudget.get().ratio(0.05).reserve(5);
+
+    private static final ExecutorService EXECUTOR = AsyncExecutors.newBoundedExecutor("rest-client-hedge",
+            Math.max(16, Runtime.getRuntime().availableProcessors() * 4), 256);
+
+    private final Client delegate;
+    private final RetryBudget budget;
+    private final Map<String, Hedge> hedges = new HashMap<>();
+
+    /**
+     * @param delegate      client sending the requests
+     * @param hedgedMethods {@link Hedged} annotations by Feign config key of the api method
+     * @param budget        budget of the duplicate requests, {@code null} for the {@link #sharedBudget()}
+     */
+    public HedgingClient(Client delegate, Map<String, Hedged> hedgedMethods, RetryBudget budget) {
+        this.delegate = delegate;
+        this.budget = budget == null ? SHARED_BUDGET : budget;
+        hedgedMethods.forEach((key, hedged) -> hedges.put(key, new Hedge(hedged)));
+    }
+
+    /**
+     * @return the process-wide hedge budget: duplicate requests up to 5% of the hedged calls
+     */
+    public static RetryBudget sharedBudget() {
+        return SHARED_BUDGET;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String methodKey = MethodTags.methodKey(request);
+        Hedge hedge = methodKey == null ? null : hedges.get(methodKey);
+        if (hedge == null || StreamingBodies.isStreaming(request)) {
+            return delegate.execute(request, options);
+        }
+        budget.deposit();
+        long delay = hedge.delayMillis();
+        if (delay == Long.MAX_VALUE) {
+            // no latency observed yet, send once and learn
+            return new Attempt(request, options, hedge).call();
+        }
+        Attempt primary = new Attempt(request, options, hedge);
+        try {
+            EXECUTOR.execute(primary);
+        } catch (RejectedExecutionException e) {
+            return primary.call();
+        }
+        try {
+            return primary.result.get(delay, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return hedge(primary, request, options, hedge);
+        } catch (InterruptedException e) {
+            primary.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for " + methodKey);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private Response hedge(Attempt primary, Request request, Request.Options options, Hedge hedge)
+            throws IOException {
+        Attempt second = new Attempt(request, options, hedge);
+        try {
+            if (!budget.tryWithdraw()) {
+                return await(primary.result);
+            }
+            try {
+                EXECUTOR.execute(second);
+            } catch (RejectedExecutionException e) {
+                return await(primary.result);
+            }
+            CompletableFuture<Attempt> winner = new CompletableFuture<>();
+            AtomicInteger failures = new AtomicInteger();
+            for (Attempt attempt : new Attempt[]{primary, second}) {
+                attempt.result.whenComplete((response, failure) -> {
+                    if (failure == null || failures.incrementAndGet() == 2) {
+                        winner.complete(attempt);
+                    }
+                });
+            }
+            Attempt first = await(winner);
+            (first == primary ? second : primary).cancel();
+            return await(first.result);
+        } catch (InterruptedIOException e) {
+            primary.cancel();
+            second.cancel();
+            throw e;
+        }
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted waiting for a hedged request");
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    private static IOException rethrow(Throwable failure) throws IOException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IOException(failure);
+    }
+
+    private static final class Hedge {
+
+        private final long delay;
+        private final LatencyWindow latencies;
+
+        private Hedge(Hedged hedged) {
+            this.delay = hedged.delay();
+            this.latencies = new LatencyWindow(hedged.percentile());
+        }
+
+        private long delayMillis() {
+            return delay >= 0 ? delay : latencies.percentileMillis();
+        }
+    }
+
+    private final class Attempt implements Runnable {
+
+        private final Request request;
+        private final Request.Options options;
+        private final Hedge hedge;
+        private final CompletableFuture<Response> result = new CompletableFuture<>();
+        private volatile CallCancellation cancellation;
+        private volatile boolean cancelled;
+
+        private Attempt(Request request, Request.Options options, Hedge hedge) {
+            this.request = request;
+            this.options = options;
+            this.hedge = hedge;
+        }
+
+        @Override
+        public void run() {
+            try (CallCancellation bound = CallCancellation.bind()) {
+                cancellation = bound;
+                if (cancelled) {
+                    bound.cancel();
+                }
+                result.complete(call());
+            } catch (Throwable failure) {
+                result.completeExceptionally(failure);
+            }
+        }
+
+        private Response call() throws IOException {
+            long start = System.nanoTime();
+            Response response = delegate.execute(request, options);
+            hedge.latencies.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return response;
+        }
+
+        private void cancel() {
+            cancelled = true;
+            CallCancellation bound = cancellation;
+            if (bound != null) {
+                bound.cancel();
+            }
+            // a response that arrives anyway is not read by anybody
+            result.thenAccept(response -> {
+                if (response.body() != null) {
+                    try {
+                        response.body().close();
+                    } catch (IOException ignored) { // NOPMD
+                    }
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package keal.ec.rest.client.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the last calls of a method, the percentile is recomputed every {@value #RECOMPUTE} samples so
+ * reading it is a volatile read. Until the first samples are in, the percentile is {@link Long#MAX_VALUE}.
+ */
+final class LatencyWindow {
+
+    private static final int SIZE = 256;
+    private static final int RECOMPUTE = 32;
+
+    private final double percentile;
+    private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+    private final AtomicInteger count = new AtomicInteger();
+    private volatile long percentileMillis = Long.MAX_VALUE;
+
+    LatencyWindow(double percentile) {
+        this.percentile = percentile;
+    }
+
+    void record(long millis) {
+        int n = count.getAndIncrement();
+        samples.set(n % SIZE, millis);
+        if ((n + 1) % RECOMPUTE == 0) {
+            recompute(Math.min(n + 1, SIZE));
+        }
+    }
+
+    long percentileMillis() {
+        return percentileMillis;
+    }
+
+    private void recompute(int filled) {
+        long[] sorted = new long[filled];
+        for (int i = 0; i < filled; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100 * filled) - 1;
+        percentileMillis = Math.max(sorted[Math.max(0, Math.min(index, filled - 1))], 1);
+    }
+}
@@ -0,0 +1,176 @@
+package keal.ec.rest.client.hystrix;
+
+import com.netflix.hystrix.HystrixCommandProperties;
+import com.netflix.hystrix.HystrixCommandProperties.ExecutionIsolationStrategy;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+
+/**
+ * Hystrix command settings of a client or of a single client method. Settings that are not set keep the value
+ * inherited from the client settings, or the Hystrix default.
+ */
+public class CommandSettings {
+
+    private Integer timeout;
+    private String threadPool;
+    private Integer threadPoolSize;
+    private Integer queueSize;
+    private ExecutionIsolationStrategy isolation;
+    private Integer maxConcurrentRequests;
+
+    public static CommandSettings get() {
+        return new CommandSettings();
+    }
+
+    /**
+     * @param timeout milliseconds after which the call is abandoned and the fallback runs
+     * @return these settings
+     */
+    public CommandSettings timeout(int timeout) {
+        if (timeout < 1) {
+            throw new IllegalArgumentException("timeout < 1: " + timeout);
+        }
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Runs the commands on a thread pool of their own, by default every method of a client shares the pool of the
+     * client.
+     *
+     * @param threadPool thread pool name
+     * @return these settings
+     */
+    public CommandSettings threadPool(String threadPool) {
+        this.threadPool = threadPool;
+        return this;
+    }
+
+    public CommandSettings threadPoolSize(int threadPoolSize) {
+        if (threadPoolSize < 1) {
+            throw new IllegalArgumentException("threadPoolSize < 1: " + threadPoolSize);
+        }
+        this.threadPoolSize = threadPoolSize;
+        return this;
+    }
+
+    /**
+     * @param queueSize calls queued when every thread of the pool is busy, -1 hands off directly to the threads
+     * @return these settings
+     */
+    public CommandSettings queueSize(int queueSize) {
+        if (queueSize < -1) {
+            throw new IllegalArgumentException("queueSize < -1: " + queueSize);
+        }
+        this.queueSize = queueSize;
+        return this;
+    }
+
+    /**
+     * Runs the calls on the caller thread, at most {@code maxConcurrentRequests} at a time, instead of on a
+     * thread pool.
+     *
+     * @param maxConcurrentRequests concurrent calls allowed before the fallback runs
+     * @return these settings
+     */
+    public CommandSettings semaphoreIsolation(int maxConcurrentRequests) {
+        maxConcurrentRequests(maxConcurrentRequests);
+        this.isolation = ExecutionIsolationStrategy.SEMAPHORE;
+        return this;
+    }
+
+    public CommandSettings threadIsolation() {
+        this.isolation = ExecutionIsolationStrategy.THREAD;
+        return this;
+    }
+
+    /**
+     * @param maxConcurrentRequests concurrent calls allowed on a semaphore isolated command and concurrent fallbacks
+     *                              allowed on any command
+     * @return these settings
+     */
+    public CommandSettings maxConcurrentRequests(int maxConcurrentRequests) {
+        if (maxConcurrentRequests < 1) {
+            throw new IllegalArgumentException("maxConcurrentRequests < 1: " + maxConcurrentRequests);
+        }
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        return this;
+    }
+
+    String threadPool() {
+        return threadPool;
+    }
+
+    boolean isSemaphoreIsolated() {
+        return isolation == ExecutionIsolationStrategy.SEMAPHORE;
+    }
+
+    /**
+     * @return the settings Hystrix keeps per command key, as a string equal for equal settings
+     */
+    String commandSignature() {
+        return "timeout=" + timeout + ",isolation=" + isolation + ",maxConcurrentRequests=" + maxConcurrentRequests;
+    }
+
+    /**
+     * @return the settings Hystrix keeps per thread pool key, as a string equal for equal settings
+     */
+    String threadPoolSignature() {
+        return "threadPoolSize=" + threadPoolSize + ",queueSize=" + queueSize;
+    }
+
+    /**
+     * @param overrides settings taking precedence, may be {@code null}
+     * @return new settings with the values of these settings overridden by the ones set in {@code overrides}
+     */
+    public CommandSettings merge(CommandSettings overrides) {
+        CommandSettings merged = new CommandSettings();
+        merged.timeout = timeout;
+        merged.threadPool = threadPool;
+        merged.threadPoolSize = threadPoolSize;
+        merged.queueSize = queueSize;
+        merged.isolation = isolation;
+        merged.maxConcurrentRequests = maxConcurrentRequests;
+        if (overrides != null) {
+            merged.timeout = pick(overrides.timeout, timeout);
+            merged.threadPool = pick(overrides.threadPool, threadPool);
+            merged.threadPoolSize = pick(overrides.threadPoolSize, threadPoolSize);
+            merged.queueSize = pick(overrides.queueSize, queueSize);
+            merged.isolation = pick(overrides.isolation, isolation);
+            merged.maxConcurrentRequests = pick(overrides.maxConcurrentRequests, maxConcurrentRequests);
+        }
+        return merged;
+    }
+
+    HystrixCommandProperties.Setter commandProperties() {
+        HystrixCommandProperties.Setter properties = HystrixCommandProperties.Setter();
+        if (timeout != null) {
+            properties.withExecutionTimeoutInMilliseconds(timeout);
+        }
+        if (isolation != null) {
+            properties.withExecutionIsolationStrategy(isolation);
+        }
+        if (maxConcurrentRequests != null) {
+            properties.withExecutionIsolationSemaphoreMaxConcurrentRequests(maxConcurrentRequests);
+            properties.withFallbackIsolationSemaphoreMaxConcurrentRequests(maxConcurrentRequests);
+        }
+        return properties;
+    }
+
+    HystrixThreadPoolProperties.Setter threadPoolProperties() {
+        HystrixThreadPoolProperties.Setter properties = HystrixThreadPoolProperties.Setter();
+        if (threadPoolSize != null) {
+            properties.withCoreSize(threadPoolSize);
+        }
+        if (queueSize != null) {
+            properties.withMaxQueueSize(queueSize);
+            if (queueSize > 0) {
+                properties.withQueueSizeRejectionThreshold(queueSize);
+            }
+        }
+        return properties;
+    }
+
+    private static <V> V pick(V override, V value) {
+        return override != null ? override : value;
+    }
+}
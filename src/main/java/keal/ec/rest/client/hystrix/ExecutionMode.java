@@ -0,0 +1,19 @@
+package keal.ec.rest.client.hystrix;
+
+/**
+ * Where the Hystrix commands of a client built with a fallback run.
+ */
+public enum ExecutionMode {
+
+    /**
+     * On a Hystrix thread pool of the client, the caller thread waits for the result. The timeout interrupts the
+     * call.
+     */
+    THREAD,
+
+    /**
+     * On the caller thread, limited by a semaphore of maximum concurrent requests. No thread handoff takes place;
+     * the timeout still triggers the fallback but cannot interrupt the caller thread.
+     */
+    SEMAPHORE
+}
@@ -0,0 +1,27 @@
+package keal.ec.rest.client.hystrix;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Hystrix command and thread pool keys by settings. Hystrix freezes the properties of a key the first time it is
+ * used, so the first settings seen for a name get the name itself as key and any other settings get the name
+ * followed by their signature, keeping the properties of each client apart.
+ */
+final class HystrixKeys {
+
+    private static final ConcurrentMap<String, String> FIRST_SIGNATURES = new ConcurrentHashMap<>();
+
+    private HystrixKeys() {
+    }
+
+    /**
+     * @param name      command or thread pool name
+     * @param signature settings Hystrix keeps per key
+     * @return the key of the name with these settings
+     */
+    static String key(String name, String signature) {
+        String first = FIRST_SIGNATURES.putIfAbsent(name, signature);
+        return first == null || first.equals(signature) ? name : name + '[' + signature + ']';
+    }
+}
@@ -0,0 +1,135 @@
+package keal.ec.rest.client.hystrix;
+
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixEventType;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
+import keal.ec.rest.client.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+
+/**
+ * Hystrix event notifier reporting the fallbacks, timeouts, short circuits and rejections of the selected commands
+ * to their {@link MetricsRegistry}, attributed to the Feign config key of the api method. Events of other commands
+ * are ignored.
+ * <p>
+ * Hystrix reports an event with its command key only. Clients of the same api with the same command settings run
+ * the same commands, so the events of such a command are reported to the registry of each of those clients.
+ * <p>
+ * Hystrix accepts a single event notifier per process, registered before the first command runs. When another
+ * notifier is already in place the Hystrix events of the selected commands are not reported.
+ */
+final class MetricsEventNotifier extends HystrixEventNotifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsEventNotifier.class);
+
+    private static final MetricsEventNotifier INSTANCE = new MetricsEventNotifier();
+
+    private final ConcurrentMap<String, Command> commands = new ConcurrentHashMap<>();
+
+    private MetricsEventNotifier() {
+    }
+
+    /**
+     * Reports the events of the given command, if the notifier can be registered.
+     *
+     * @param commandKey Hystrix command key
+     * @param configKey  Feign config key of the api method, reported to the registry
+     * @param registry   registry of the events
+     * @param client     client name reported to the registry
+     * @return {@code true} when the events of the command will be reported
+     */
+    static boolean use(String commandKey, String configKey, MetricsRegistry registry, String client) {
+        if (!register()) {
+            LOGGER.warn("Hystrix event notifier already registered, events of command {} are not reported",
+                    commandKey);
+            return false;
+        }
+        INSTANCE.commands.computeIfAbsent(commandKey, key -> new Command(configKey))
+                .targets.add(new Target(registry, client));
+        return true;
+    }
+
+    private static synchronized boolean register() {
+        try {
+            HystrixPlugins.getInstance().registerEventNotifier(INSTANCE);
+        } catch (IllegalStateException alreadyRegistered) { // NOPMD
+        }
+        return HystrixPlugins.getInstance().getEventNotifier() == INSTANCE;
+    }
+
+    @Override
+    public void markEvent(HystrixEventType eventType, HystrixCommandKey key) {
+        MetricsRegistry.Event event = toEvent(eventType);
+        if (event == null) {
+            return;
+        }
+        Command command = commands.get(key.name());
+        if (command != null) {
+            for (Target target : command.targets) {
+                target.registry.event(target.client, command.configKey, event);
+            }
+        }
+    }
+
+    private static MetricsRegistry.Event toEvent(HystrixEventType eventType) {
+        switch (eventType) {
+            case FALLBACK_SUCCESS:
+            case FALLBACK_FAILURE:
+                return MetricsRegistry.Event.FALLBACK;
+            case TIMEOUT:
+                return MetricsRegistry.Event.TIMEOUT;
+            case SHORT_CIRCUITED:
+                return MetricsRegistry.Event.SHORT_CIRCUIT;
+            case THREAD_POOL_REJECTED:
+            case SEMAPHORE_REJECTED:
+                return MetricsRegistry.Event.REJECTED;
+            default:
+                return null;
+        }
+    }
+
+    private static final class Command {
+
+        private final String configKey;
+        private final Set<Target> targets = new CopyOnWriteArraySet<>();
+
+        private Command(String configKey) {
+            this.configKey = configKey;
+        }
+    }
+
+    private static final class Target {
+
+        private final MetricsRegistry registry;
+        private final String client;
+
+        private Target(MetricsRegistry registry, String client) {
+            this.registry = registry;
+            this.client = client;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Target)) {
+                return false;
+            }
+            Target that = (Target) o;
+            return registry == that.registry && client.equals(that.client);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(System.identityHashCode(registry), client);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package keal.ec.rest.client.hystrix;
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandGroupKey;
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import feign.Feign;
+import feign.Target;
+import feign.hystrix.SetterFactory;
+import keal.ec.rest.client.metrics.MetricsRegistry;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Builds the Hystrix command setters of a client from its {@link CommandSettings}, instead of the global
+ * {@code hystrix.command.default} configuration.
+ * <p>
+ * Commands are keyed by the Feign config key of the method and run on a thread pool named after the client
+ * interface, so a slow client cannot exhaust the threads of another one. Hystrix keeps the properties of a command
+ * or thread pool key from its first use on, so a client of the same interface built later with other settings gets
+ * keys of its own, the config key or pool name followed by its settings, see {@link HystrixKeys}.
+ */
+public class RestClientSetterFactory implements SetterFactory {
+
+    private final CommandSettings clientSettings;
+    private final Map<String, CommandSettings> methodSettings;
+    private boolean virtualThreads;
+    private MetricsRegistry metricsRegistry;
+
+    /**
+     * @param clientSettings settings of every method of the client
+     * @param methodSettings settings by method name, overriding the client settings
+     */
+    public RestClientSetterFactory(CommandSettings clientSettings, Map<String, CommandSettings> methodSettings) {
+        this.clientSettings = clientSettings == null ? CommandSettings.get() : clientSettings;
+        this.methodSettings = methodSettings == null
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new HashMap<>(methodSettings));
+    }
+
+    /**
+     * Runs the thread isolated commands on virtual threads when the runtime supports them, see
+     * {@link VirtualThreadConcurrencyStrategy}.
+     *
+     * @return this factory
+     */
+    public RestClientSetterFactory virtualThreads() {
+        this.virtualThreads = true;
+        return this;
+    }
+
+    /**
+     * Reports the fallbacks, timeouts, short circuits and rejections of the commands to the given registry, see
+     * {@link MetricsEventNotifier}.
+     *
+     * @param metricsRegistry registry of the Hystrix events
+     * @return this factory
+     */
+    public RestClientSetterFactory metrics(MetricsRegistry metricsRegistry) {
+        this.metricsRegistry = metricsRegistry;
+        return this;
+    }
+
+    /**
+     * @param apiClass api interface of the client
+     * @return whether any method of the interface runs its calls on a Hystrix thread
+     */
+    public boolean isThreadIsolated(Class<?> apiClass) {
+        for (Method method : apiClass.getMethods()) {
+            if (!clientSettings.merge(methodSettings.get(method.getName())).isSemaphoreIsolated()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public HystrixCommand.Setter create(Target<?> target, Method method) {
+        CommandSettings settings = clientSettings.merge(methodSettings.get(method.getName()));
+        String threadPool = HystrixKeys.key(
+                settings.threadPool() != null ? settings.threadPool() : target.type().getName(),
+                settings.threadPoolSignature());
+        if (virtualThreads && !settings.isSemaphoreIsolated()) {
+            VirtualThreadConcurrencyStrategy.use(threadPool);
+        }
+        String configKey = Feign.configKey(target.type(), method);
+        String commandKey = HystrixKeys.key(configKey, settings.commandSignature());
+        if (metricsRegistry != null) {
+            MetricsEventNotifier.use(commandKey, configKey, metricsRegistry, target.type().getSimpleName());
+        }
+        return HystrixCommand.Setter
+                .withGroupKey(HystrixCommandGroupKey.Factory.asKey(target.name()))
+                .andCommandKey(HystrixCommandKey.Factory.asKey(commandKey))
+                .andThreadPoolKey(HystrixThreadPoolKey.Factory.asKey(threadPool))
+                .andCommandPropertiesDefaults(settings.commandProperties())
+                .andThreadPoolPropertiesDefaults(settings.threadPoolProperties());
+    }
+}
@@ -0,0 +1,86 @@
+package keal.ec.rest.client.hystrix;
+
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
+import keal.ec.rest.client.async.VirtualThreads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Hystrix concurrency strategy creating the thread pools of the selected clients with virtual threads. The pools
+ * keep their core size as a bulkhead, but every thread costs a few KB instead of a platform thread stack. Thread
+ * pools of other clients are created as usual.
+ * <p>
+ * Hystrix accepts a single concurrency strategy per process, registered before the first command runs. When
+ * another strategy is already in place the selected clients keep running on platform threads.
+ */
+public final class VirtualThreadConcurrencyStrategy extends HystrixConcurrencyStrategy {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadConcurrencyStrategy.class);
+
+    private static final VirtualThreadConcurrencyStrategy INSTANCE = new VirtualThreadConcurrencyStrategy();
+
+    private static final AtomicBoolean UNAVAILABLE_WARNED = new AtomicBoolean();
+    private static final AtomicBoolean REGISTERED_WARNED = new AtomicBoolean();
+
+    private final Set<String> threadPools = ConcurrentHashMap.newKeySet();
+
+    private VirtualThreadConcurrencyStrategy() {
+    }
+
+    /**
+     * Runs the commands of the given thread pool on virtual threads, if the runtime supports them and the strategy
+     * can be registered.
+     *
+     * @param threadPool Hystrix thread pool name
+     * @return {@code true} when the thread pool will use virtual threads
+     */
+    static boolean use(String threadPool) {
+        // every client build asks again for its thread pools, the reason is the same for all of them
+        if (!VirtualThreads.isAvailable()) {
+            if (UNAVAILABLE_WARNED.compareAndSet(false, true)) {
+                LOGGER.warn("Virtual threads require a JDK 21+ runtime, Hystrix thread pools use platform threads");
+            }
+            return false;
+        }
+        if (!register()) {
+            if (REGISTERED_WARNED.compareAndSet(false, true)) {
+                LOGGER.warn("Hystrix concurrency strategy already registered, thread pool {} and the next ones "
+                        + "use platform threads", threadPool);
+            }
+            return false;
+        }
+        INSTANCE.threadPools.add(threadPool);
+        return true;
+    }
+
+    static synchronized boolean register() {
+        try {
+            HystrixPlugins.getInstance().registerConcurrencyStrategy(INSTANCE);
+        } catch (IllegalStateException alreadyRegistered) { // NOPMD
+        }
+        return HystrixPlugins.getInstance().getConcurrencyStrategy() == INSTANCE;
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool(HystrixThreadPoolKey threadPoolKey,
+                                            HystrixProperty<Integer> corePoolSize,
+                                            HystrixProperty<Integer> maximumPoolSize,
+                                            HystrixProperty<Integer> keepAliveTime, TimeUnit unit,
+                                            BlockingQueue<Runnable> workQueue) {
+        if (!threadPools.contains(threadPoolKey.name())) {
+            return super.getThreadPool(threadPoolKey, corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue);
+        }
+        return new ThreadPoolExecutor(corePoolSize.get(), maximumPoolSize.get(), keepAliveTime.get(), unit,
+                workQueue, VirtualThreads.threadFactory("hystrix-" + threadPoolKey.name()));
+    }
+}
@@ -0,0 +1,20 @@
+package keal.ec.rest.client.limit;
+
+import feign.Request;
+import keal.ec.rest.client.error.RestClientException;
+
+/**
+ * Thrown when a request is rejected by the {@link ConcurrencyLimiter} of the client without being sent. It
+ * carries status 503, the request is not retried.
+ */
+public class ConcurrencyLimitExceededException extends RestClientException {
+
+    ConcurrencyLimitExceededException(Request request, int limit) {
+        super(503, "concurrency limit of " + limit + " reached sending " + request.method() + " " + request.url());
+    }
+
+    @Override
+    public boolean isRetryable() {
+        return false;
+    }
+}
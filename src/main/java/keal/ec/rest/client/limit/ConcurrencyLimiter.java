@@ -0,0 +1,145 @@
+package keal.ec.rest.client.limit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adaptive concurrency limit of a client (AIMD). Each call that completes in time and without failure raises the
+ * limit by {@code 1 / limit}, about one per round trip of the whole window. A failure, or a round trip slower
+ * than {@link #tolerance(double)} times the minimum recently measured, multiplies it by
+ * {@link #backoffRatio(double)}. Calls beyond the limit are rejected right away instead of queueing behind a slow
+ * upstream.
+ * <p>
+ * A limiter keeps the state of one client, give every client its own instance.
+ */
+public final class ConcurrencyLimiter {
+
+    private static final int RTT_WINDOW = 100;
+
+    private int minLimit = 1;
+    private int maxLimit = 200;
+    private double backoffRatio = 0.9;
+    private double tolerance = 2.0;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit = 20;
+    private long minRttNanos = Long.MAX_VALUE;
+    private long windowMinRttNanos = Long.MAX_VALUE;
+    private int windowSamples;
+
+    public static ConcurrencyLimiter get() {
+        return new ConcurrencyLimiter();
+    }
+
+    /**
+     * @param initialLimit concurrent calls allowed before any measurement, 20 by default; kept within the
+     *                     {@link #limits(int, int) limits}
+     * @return this limiter
+     */
+    public ConcurrencyLimiter initialLimit(int initialLimit) {
+        if (initialLimit < 1) {
+            throw new IllegalArgumentException("initialLimit must be at least 1");
+        }
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        return this;
+    }
+
+    /**
+     * @param minLimit lowest limit, 1 by default
+     * @param maxLimit highest limit, 200 by default
+     * @return this limiter
+     */
+    public ConcurrencyLimiter limits(int minLimit, int maxLimit) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limits " + minLimit + ".." + maxLimit);
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, limit));
+        return this;
+    }
+
+    /**
+     * @param backoffRatio factor applied to the limit on every failure or slow call, 0.9 by default
+     * @return this limiter
+     */
+    public ConcurrencyLimiter backoffRatio(double backoffRatio) {
+        if (backoffRatio <= 0 || backoffRatio >= 1) {
+            throw new IllegalArgumentException("backoffRatio must be between 0 and 1");
+        }
+        this.backoffRatio = backoffRatio;
+        return this;
+    }
+
+    /**
+     * @param tolerance round trip, as a multiple of the minimum recently measured, above which a call counts as
+     *                  slow; 2 by default
+     * @return this limiter
+     */
+    public ConcurrencyLimiter tolerance(double tolerance) {
+        if (tolerance < 1) {
+            throw new IllegalArgumentException("tolerance must be at least 1");
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * @return current limit of concurrent calls
+     */
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * @return calls in flight
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    void release(long rttNanos, boolean failed) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            boolean slow = !failed && minRttNanos != Long.MAX_VALUE && rttNanos > minRttNanos * tolerance;
+            track(rttNanos, failed);
+            if (failed || slow) {
+                limit = Math.max(minLimit, limit * backoffRatio);
+            } else {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        }
+    }
+
+    private void track(long rttNanos, boolean failed) {
+        if (!failed) {
+            minRttNanos = Math.min(minRttNanos, rttNanos);
+            windowMinRttNanos = Math.min(windowMinRttNanos, rttNanos);
+        }
+        if (++windowSamples >= RTT_WINDOW) {
+            // the minimum follows the upstream when its latency changes for good
+            if (windowMinRttNanos != Long.MAX_VALUE) {
+                minRttNanos = windowMinRttNanos;
+            }
+            windowMinRttNanos = Long.MAX_VALUE;
+            windowSamples = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "limit " + limit() + ", in flight " + inFlight() + ", min rtt "
+                + (minRttNanos == Long.MAX_VALUE ? "-" : TimeUnit.NANOSECONDS.toMillis(minRttNanos) + " ms");
+    }
+}
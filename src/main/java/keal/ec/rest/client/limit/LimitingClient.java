@@ -0,0 +1,39 @@
+package keal.ec.rest.client.limit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+
+/**
+ * Admits requests through a {@link ConcurrencyLimiter} and reports their round trip back to it. A request beyond
+ * the limit fails with a {@link ConcurrencyLimitExceededException} without being sent; like any other failure it
+ * reaches the fallback of the client.
+ */
+public final class LimitingClient implements Client {
+
+    private final Client delegate;
+    private final ConcurrencyLimiter limiter;
+
+    public LimitingClient(Client delegate, ConcurrencyLimiter limiter) {
+        this.delegate = delegate;
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!limiter.tryAcquire()) {
+            throw new ConcurrencyLimitExceededException(request, limiter.limit());
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Response response = delegate.execute(request, options);
+            failed = response.status() >= 500 || response.status() == 429;
+            return response;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package keal.ec.rest.client.log;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import feign.slf4j.Slf4jLogger;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Slf4j Feign logger that logs at the configured level only one in every {@code sampleRate} calls and every failed
+ * call. The remaining calls are logged at {@link Logger.Level#BASIC} at most, so their headers and bodies are
+ * neither formatted nor buffered.
+ */
+public class SamplingLogger extends Slf4jLogger {
+
+    private static final ThreadLocal<Boolean> SAMPLED = new ThreadLocal<>();
+
+    private final int sampleRate;
+    private final AtomicLong calls = new AtomicLong();
+
+    public SamplingLogger(Class<?> apiClass, int sampleRate) {
+        super(apiClass);
+        if (sampleRate < 1) {
+            throw new IllegalArgumentException("sampleRate < 1: " + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void logRequest(String configKey, Logger.Level logLevel, Request request) {
+        boolean sampled = calls.getAndIncrement() % sampleRate == 0;
+        SAMPLED.set(sampled);
+        super.logRequest(configKey, sampled ? logLevel : basic(logLevel), request);
+    }
+
+    @Override
+    protected Response logAndRebufferResponse(String configKey, Logger.Level logLevel, Response response,
+                                              long elapsedTime) throws IOException {
+        boolean failed = response.status() < 200 || response.status() >= 300;
+        // always read the flag, it must be cleared for the next call of this thread
+        boolean sampled = sampled();
+        Logger.Level level = failed || sampled ? logLevel : basic(logLevel);
+        return super.logAndRebufferResponse(configKey, level, response, elapsedTime);
+    }
+
+    @Override
+    protected IOException logIOException(String configKey, Logger.Level logLevel, IOException ioe,
+                                         long elapsedTime) {
+        SAMPLED.remove();
+        return super.logIOException(configKey, logLevel, ioe, elapsedTime);
+    }
+
+    private static boolean sampled() {
+        Boolean sampled = SAMPLED.get();
+        SAMPLED.remove();
+        return Boolean.TRUE.equals(sampled);
+    }
+
+    private static Logger.Level basic(Logger.Level logLevel) {
+        return logLevel.compareTo(Logger.Level.BASIC) > 0 ? Logger.Level.BASIC : logLevel;
+    }
+}
@@ -0,0 +1,175 @@
+package keal.ec.rest.client.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics registry keeping the measurements in memory, per client and api method. Latencies go to an HdrHistogram
+ * {@link Recorder}, so recording them does not allocate or lock; counters are {@link LongAdder}s.
+ */
+public final class InMemoryMetricsRegistry implements MetricsRegistry {
+
+    private static final String UNKNOWN_METHOD = "?";
+
+    private final ConcurrentMap<String, ConcurrentMap<String, MethodMetrics>> clients = new ConcurrentHashMap<>();
+
+    public static InMemoryMetricsRegistry get() {
+        return new InMemoryMetricsRegistry();
+    }
+
+    /**
+     * @param client client name
+     * @param method api method, as its Feign config key
+     * @return the metrics of the method, empty ones when nothing was recorded yet
+     */
+    public MethodMetrics metrics(String client, String method) {
+        return metricsOf(client, method);
+    }
+
+    /**
+     * @param client client name
+     * @return the metrics of every method of the client recorded so far, by Feign config key
+     */
+    public Map<String, MethodMetrics> metrics(String client) {
+        return clients.getOrDefault(client, new ConcurrentHashMap<>());
+    }
+
+    @Override
+    public void requestStarted(String client, String method) {
+        metricsOf(client, method).inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void requestCompleted(String client, String method, int status, long latencyNanos) {
+        MethodMetrics metrics = metricsOf(client, method);
+        metrics.inFlight.decrementAndGet();
+        metrics.requests.increment();
+        metrics.latencies.recordValue(Math.max(0, latencyNanos / 1000));
+        if (status >= 0 && status < MethodMetrics.STATUSES) {
+            metrics.statuses.incrementAndGet(status);
+        }
+    }
+
+    @Override
+    public void requestFailed(String client, String method, Throwable failure, long latencyNanos) {
+        MethodMetrics metrics = metricsOf(client, method);
+        metrics.inFlight.decrementAndGet();
+        metrics.requests.increment();
+        metrics.failures.increment();
+        metrics.latencies.recordValue(Math.max(0, latencyNanos / 1000));
+    }
+
+    @Override
+    public void bytesSent(String client, String method, long bytes) {
+        metricsOf(client, method).bytesOut.add(bytes);
+    }
+
+    @Override
+    public void bytesReceived(String client, String method, long bytes) {
+        metricsOf(client, method).bytesIn.add(bytes);
+    }
+
+    @Override
+    public void event(String client, String method, Event event) {
+        metricsOf(client, method).events.get(event).increment();
+    }
+
+    private MethodMetrics metricsOf(String client, String method) {
+        ConcurrentMap<String, MethodMetrics> methods = clients.get(client);
+        if (methods == null) {
+            methods = clients.computeIfAbsent(Objects.requireNonNull(client, "client"),
+                    key -> new ConcurrentHashMap<>());
+        }
+        String key = method == null ? UNKNOWN_METHOD : method;
+        MethodMetrics metrics = methods.get(key);
+        if (metrics == null) {
+            metrics = methods.computeIfAbsent(key, ignored -> new MethodMetrics());
+        }
+        return metrics;
+    }
+
+    /**
+     * Measurements of one api method.
+     */
+    public static final class MethodMetrics {
+
+        private static final int STATUSES = 600;
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLongArray statuses = new AtomicLongArray(STATUSES);
+        private final LongAdder bytesOut = new LongAdder();
+        private final LongAdder bytesIn = new LongAdder();
+        private final Map<Event, LongAdder> events = new EnumMap<>(Event.class);
+        private final Recorder latencies = new Recorder(3);
+        private Histogram accumulated;
+        private Histogram interval;
+
+        private MethodMetrics() {
+            for (Event event : Event.values()) {
+                events.put(event, new LongAdder());
+            }
+        }
+
+        /**
+         * @return requests completed or failed
+         */
+        public long requests() {
+            return requests.sum();
+        }
+
+        /**
+         * @return requests that failed without a response
+         */
+        public long failures() {
+            return failures.sum();
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        /**
+         * @param status response status
+         * @return responses received with the status
+         */
+        public long responses(int status) {
+            return status >= 0 && status < STATUSES ? statuses.get(status) : 0;
+        }
+
+        public long bytesSent() {
+            return bytesOut.sum();
+        }
+
+        public long bytesReceived() {
+            return bytesIn.sum();
+        }
+
+        public long events(Event event) {
+            return events.get(event).sum();
+        }
+
+        /**
+         * @return a copy of the latency histogram since the registry was created, in microseconds
+         */
+        public synchronized Histogram latencies() {
+            interval = latencies.getIntervalHistogram(interval);
+            if (accumulated == null) {
+                accumulated = interval.copy();
+            } else {
+                accumulated.add(interval);
+            }
+            return accumulated.copy();
+        }
+    }
+}
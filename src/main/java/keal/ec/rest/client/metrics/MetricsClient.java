@@ -0,0 +1,193 @@
+package keal.ec.rest.client.metrics;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import keal.ec.rest.client.limit.ConcurrencyLimitExceededException;
+import keal.ec.rest.client.transport.MethodTags;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * Reports every request of a client to a {@link MetricsRegistry}: requests in flight, latency until the response
+ * headers, status, failures and the bytes sent and received. Requests are attributed to the api method by their
+ * method tag, see {@link MethodTags}.
+ * <p>
+ * As the outermost client it measures a call the way the caller sees it, including the responses served from cache
+ * and the calls rejected by the concurrency limiter; retries are counted by the {@link #retryer(Retryer)}.
+ */
+public final class MetricsClient implements Client {
+
+    /**
+     * Retryer of the call starting on the thread: Feign clones the retryer right before the first request of a
+     * call, which hands it the api method.
+     */
+    private static final ThreadLocal<MetricsRetryer> STARTING_CALL = new ThreadLocal<>();
+
+    private final Client delegate;
+    private final MetricsRegistry registry;
+    private final String name;
+
+    /**
+     * @param delegate client sending the requests
+     * @param registry registry of the measurements
+     * @param name     client name reported to the registry
+     */
+    public MetricsClient(Client delegate, MetricsRegistry registry, String name) {
+        this.delegate = delegate;
+        this.registry = Objects.requireNonNull(registry, "registry");
+        this.name = Objects.requireNonNull(name, "name");
+    }
+
+    /**
+     * @param delegate retryer of the client
+     * @return a retryer reporting every retry it allows as {@link MetricsRegistry.Event#RETRY}
+     */
+    public Retryer retryer(Retryer delegate) {
+        return new MetricsRetryer(delegate);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String method = MethodTags.methodKey(request);
+        MetricsRetryer call = STARTING_CALL.get();
+        if (call != null) {
+            STARTING_CALL.remove();
+            call.method = method;
+        }
+        registry.requestStarted(name, method);
+        if (request.body() != null) {
+            registry.bytesSent(name, method, request.body().length);
+        }
+        long start = System.nanoTime();
+        Response response;
+        try {
+            response = delegate.execute(request, options);
+        } catch (IOException | RuntimeException e) {
+            if (e instanceof ConcurrencyLimitExceededException) {
+                registry.event(name, method, MetricsRegistry.Event.LIMITED);
+            }
+            registry.requestFailed(name, method, e, System.nanoTime() - start);
+            throw e;
+        }
+        registry.requestCompleted(name, method, response.status(), System.nanoTime() - start);
+        Response.Body body = response.body();
+        if (body == null) {
+            return response;
+        }
+        if (body.length() != null) {
+            registry.bytesReceived(name, method, body.length());
+            return response;
+        }
+        return response.toBuilder().body(new CountingBody(body, method)).build();
+    }
+
+    private final class MetricsRetryer implements Retryer {
+
+        private final Retryer delegate;
+        private String method;
+
+        private MetricsRetryer(Retryer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void continueOrPropagate(RetryableException e) {
+            delegate.continueOrPropagate(e);
+            registry.event(name, method, MetricsRegistry.Event.RETRY);
+        }
+
+        @Override
+        public Retryer clone() {
+            MetricsRetryer call = new MetricsRetryer(delegate.clone());
+            STARTING_CALL.set(call);
+            return call;
+        }
+    }
+
+    /**
+     * Body of unknown length, reporting the bytes read once the body is closed.
+     */
+    private final class CountingBody implements Response.Body {
+
+        private final Response.Body delegate;
+        private final String method;
+        private long bytes;
+        private boolean reported;
+
+        private CountingBody(Response.Body delegate, String method) {
+            this.delegate = delegate;
+            this.method = method;
+        }
+
+        @Override
+        public Integer length() {
+            return null;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return new FilterInputStream(delegate.asInputStream()) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) {
+                        bytes++;
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) throws IOException {
+                    int read = super.read(buffer, offset, length);
+                    if (read > 0) {
+                        bytes += read;
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    long skipped = super.skip(n);
+                    bytes += skipped;
+                    return skipped;
+                }
+
+                @Override
+                public void close() throws IOException {
+                    CountingBody.this.close();
+                }
+            };
+        }
+
+        @Override
+        public Reader asReader() throws IOException {
+            return new InputStreamReader(asInputStream(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                if (!reported) {
+                    reported = true;
+                    registry.bytesReceived(name, method, bytes);
+                }
+            }
+        }
+    }
+}
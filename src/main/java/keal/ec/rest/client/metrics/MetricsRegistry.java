@@ -0,0 +1,82 @@
+package keal.ec.rest.client.metrics;
+
+/**
+ * Receives the measurements of the clients built with {@link keal.ec.rest.client.RestClient#metrics(MetricsRegistry)}.
+ * Every callback names the client, the simple name of its api interface, and the api method, as its Feign config
+ * key such as {@code OrderAPIClient#process(Order)}; the method is {@code null} when it is not known.
+ * <p>
+ * Callbacks run on the request path and must not block. Implementations adapt these callbacks to a metrics
+ * library; {@link InMemoryMetricsRegistry} keeps them in process.
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Events of a client besides the requests themselves.
+     */
+    enum Event {
+        /**
+         * a fallback was used
+         */
+        FALLBACK,
+        /**
+         * the call exceeded its Hystrix timeout
+         */
+        TIMEOUT,
+        /**
+         * the Hystrix circuit breaker was open
+         */
+        SHORT_CIRCUIT,
+        /**
+         * the Hystrix thread pool or semaphore was full
+         */
+        REJECTED,
+        /**
+         * the call was rejected by the concurrency limiter of the client
+         */
+        LIMITED,
+        /**
+         * a request was sent again by the retry policy
+         */
+        RETRY
+    }
+
+    /**
+     * Registry ignoring every measurement.
+     */
+    MetricsRegistry NOOP = new MetricsRegistry() {
+    };
+
+    default void requestStarted(String client, String method) {
+    }
+
+    /**
+     * @param client       client name
+     * @param method       api method
+     * @param status       response status
+     * @param latencyNanos time until the response headers arrived
+     */
+    default void requestCompleted(String client, String method, int status, long latencyNanos) {
+    }
+
+    /**
+     * @param client       client name
+     * @param method       api method
+     * @param failure      failure sending the request or reading the response headers
+     * @param latencyNanos time until the failure
+     */
+    default void requestFailed(String client, String method, Throwable failure, long latencyNanos) {
+    }
+
+    default void bytesSent(String client, String method, long bytes) {
+    }
+
+    /**
+     * Called once the response body length is known, which for bodies without {@code Content-Length} is when the
+     * body is closed.
+     */
+    default void bytesReceived(String client, String method, long bytes) {
+    }
+
+    default void event(String client, String method, Event event) {
+    }
+}
@@ -0,0 +1,63 @@
+package keal.ec.rest.client.retry;
+
+import feign.RetryableException;
+import feign.Retryer;
+import keal.ec.rest.client.error.RestClientException;
+import keal.ec.rest.client.transport.NonReplayableBodyException;
+
+/**
+ * Feign retryer applying a {@link RetryPolicy}. Feign clones the retryer once per call, so {@link #clone()} is
+ * where the call deposits into the retry budget and gets its own attempt counter.
+ */
+final class PolicyRetryer implements Retryer {
+
+    private final RetryPolicy policy;
+    private int attempt = 1;
+
+    PolicyRetryer(RetryPolicy policy) {
+        this.policy = policy;
+    }
+
+    @Override
+    public void continueOrPropagate(RetryableException e) {
+        if (attempt >= policy.maxAttempts() || !retries(e) || !policy.budget().tryWithdraw()) {
+            throw propagated(e);
+        }
+        long wait = policy.backoffMillis(attempt);
+        if (e.retryAfter() != null) {
+            long retryAfter = e.retryAfter().getTime() - System.currentTimeMillis();
+            wait = Math.max(wait, Math.min(retryAfter, policy.maxBackoffMillis()));
+        }
+        try {
+            Thread.sleep(wait);
+        } catch (InterruptedException interrupted) {
+            Thread.currentThread().interrupt();
+            throw propagated(e);
+        }
+        attempt++;
+    }
+
+    @Override
+    public Retryer clone() {
+        policy.budget().deposit();
+        return new PolicyRetryer(policy);
+    }
+
+    private boolean retries(RetryableException e) {
+        Throwable cause = e.getCause();
+        if (cause == null || cause instanceof RestClientException) {
+            // the error decoder already asked for the retry
+            return true;
+        }
+        for (Throwable failure = cause; failure != null; failure = failure.getCause()) {
+            if (failure instanceof NonReplayableBodyException) {
+                return false;
+            }
+        }
+        return policy.retries(cause);
+    }
+
+    private static RuntimeException propagated(RetryableException e) {
+        return e.getCause() instanceof RestClientException ? (RestClientException) e.getCause() : e;
+    }
+}
@@ -0,0 +1,103 @@
+package keal.ec.rest.client.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket limiting retries to a share of the requests. Every request deposits {@link #ratio(double)} tokens,
+ * every retry withdraws one; when the bucket is empty retries are refused and the failure is returned to the
+ * caller. A small reserve lets a process with little traffic still retry.
+ * <p>
+ * {@link #shared()} is used by every {@link RetryPolicy} unless another budget is given, so the limit holds for
+ * the whole process and not per client.
+ */
+public final class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private static final RetryBudget SHARED = new RetryBudget();
+
+    private final AtomicLong tokens = new AtomicLong();
+    private volatile long deposit = SCALE / 10;
+    private volatile long maxTokens = 100 * SCALE;
+
+    private RetryBudget() {
+        tokens.set(10 * SCALE);
+    }
+
+    public static RetryBudget get() {
+        return new RetryBudget();
+    }
+
+    /**
+     * @return the process-wide budget: retries up to 10% of the requests, with a reserve of 10 retries
+     */
+    public static RetryBudget shared() {
+        return SHARED;
+    }
+
+    /**
+     * @param ratio retries allowed per request, 0.1 by default
+     * @return this budget
+     */
+    public RetryBudget ratio(double ratio) {
+        if (ratio < 0) {
+            throw new IllegalArgumentException("ratio must not be negative");
+        }
+        this.deposit = Math.round(ratio * SCALE);
+        return this;
+    }
+
+    /**
+     * @param reserve retries available before any request was deposited, 10 by default
+     * @return this budget
+     */
+    public RetryBudget reserve(int reserve) {
+        tokens.set(Math.min(reserve * SCALE, maxTokens));
+        return this;
+    }
+
+    /**
+     * @param maxRetries maximum retries the bucket can accumulate during quiet periods, 100 by default
+     * @return this budget
+     */
+    public RetryBudget maxRetries(int maxRetries) {
+        this.maxTokens = maxRetries * SCALE;
+        tokens.updateAndGet(current -> Math.min(current, maxTokens));
+        return this;
+    }
+
+    /**
+     * @return retries currently available
+     */
+    public int available() {
+        return (int) (tokens.get() / SCALE);
+    }
+
+    /**
+     * Records a request, adding its share of a retry to the bucket.
+     */
+    public void deposit() {
+        long max = maxTokens;
+        long current;
+        do {
+            current = tokens.get();
+            if (current >= max) {
+                return;
+            }
+        } while (!tokens.compareAndSet(current, Math.min(max, current + deposit)));
+    }
+
+    /**
+     * @return whether a retry was available, in which case it is taken from the bucket
+     */
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < SCALE) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - SCALE));
+        return true;
+    }
+}
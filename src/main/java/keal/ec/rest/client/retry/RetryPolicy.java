@@ -0,0 +1,205 @@
+package keal.ec.rest.client.retry;
+
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import keal.ec.rest.client.error.RestClientException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retry policy of a client: exponential backoff with full jitter, rules deciding which failures are retried and a
+ * {@link RetryBudget} capping the retries of the whole process.
+ * <p>
+ * By default a failure is retried when it is an {@link IOException} sending the request or a
+ * {@link RestClientException} whose {@link RestClientException#isRetryable()} is {@code true}; the rules added
+ * with {@link #retryOn(int...)}, {@link #neverRetryOn(int...)}, {@link #retryOn(Class)} and
+ * {@link #neverRetryOn(Class)} override that. Error responses are only retried for the idempotent methods GET,
+ * HEAD, PUT, DELETE and OPTIONS, the server may have acted on a {@code POST} or {@code PATCH} before failing;
+ * {@link #retryNonIdempotent()} lifts that restriction. When the attempts or the budget are exhausted the caller receives
+ * the last {@link RestClientException}, or the Feign exception of the I/O failure.
+ */
+public final class RetryPolicy {
+
+    private static final int STATUSES = 600;
+    private static final Set<String> IDEMPOTENT_METHODS = Collections.unmodifiableSet(
+            new HashSet<>(Arrays.asList("GET", "HEAD", "PUT", "DELETE", "OPTIONS")));
+
+    private int maxAttempts = 3;
+    private long initialBackoffMillis = 100;
+    private long maxBackoffMillis = 2000;
+    private RetryBudget budget = RetryBudget.shared();
+    private boolean retryNonIdempotent;
+    private final Boolean[] statusRules = new Boolean[STATUSES];
+    private final Map<Class<? extends Throwable>, Boolean> exceptionRules = new LinkedHashMap<>();
+
+    private RetryPolicy() {
+        exceptionRules.put(IOException.class, true);
+    }
+
+    public static RetryPolicy get() {
+        return new RetryPolicy();
+    }
+
+    /**
+     * @param maxAttempts attempts per call including the first one, 3 by default
+     * @return this policy
+     */
+    public RetryPolicy maxAttempts(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1");
+        }
+        this.maxAttempts = maxAttempts;
+        return this;
+    }
+
+    /**
+     * The wait before retry {@code n} is a random value between 0 and {@code min(max, initial * 2^(n - 1))}. A
+     * {@code Retry-After} response header raises the wait up to {@code max}.
+     *
+     * @param initial wait bound of the first retry, 100 ms by default
+     * @param max     wait bound of every retry, 2 s by default
+     * @param unit    unit of both values
+     * @return this policy
+     */
+    public RetryPolicy backoff(long initial, long max, TimeUnit unit) {
+        this.initialBackoffMillis = unit.toMillis(initial);
+        this.maxBackoffMillis = unit.toMillis(max);
+        return this;
+    }
+
+    /**
+     * @param budget budget the retries of this policy draw from, {@link RetryBudget#shared()} by default
+     * @return this policy
+     */
+    public RetryPolicy budget(RetryBudget budget) {
+        this.budget = budget;
+        return this;
+    }
+
+    /**
+     * @param statuses response statuses to retry
+     * @return this policy
+     */
+    public RetryPolicy retryOn(int... statuses) {
+        return statusRule(true, statuses);
+    }
+
+    /**
+     * @param statuses response statuses never to retry
+     * @return this policy
+     */
+    public RetryPolicy neverRetryOn(int... statuses) {
+        return statusRule(false, statuses);
+    }
+
+    /**
+     * Retries the error responses of {@code POST} and {@code PATCH} requests too, for apis whose calls are safe to
+     * repeat, for instance through an idempotency key.
+     *
+     * @return this policy
+     */
+    public RetryPolicy retryNonIdempotent() {
+        this.retryNonIdempotent = true;
+        return this;
+    }
+
+    /**
+     * @param type failure type to retry, matched against the failure and its causes
+     * @return this policy
+     */
+    public RetryPolicy retryOn(Class<? extends Throwable> type) {
+        exceptionRules.remove(type);
+        exceptionRules.put(type, true);
+        return this;
+    }
+
+    /**
+     * @param type failure type never to retry, such as {@code SocketTimeoutException} for calls that are not
+     *             idempotent; matched against the failure and its causes
+     * @return this policy
+     */
+    public RetryPolicy neverRetryOn(Class<? extends Throwable> type) {
+        exceptionRules.remove(type);
+        exceptionRules.put(type, false);
+        return this;
+    }
+
+    /**
+     * @return a Feign retryer applying this policy
+     */
+    public Retryer retryer() {
+        return new PolicyRetryer(this);
+    }
+
+    /**
+     * @param delegate decoder creating the exceptions of the error responses
+     * @return a decoder marking the {@link RestClientException}s this policy retries as retryable for Feign
+     */
+    public ErrorDecoder errorDecoder(ErrorDecoder delegate) {
+        return new RetryingErrorDecoder(delegate, this);
+    }
+
+    int maxAttempts() {
+        return maxAttempts;
+    }
+
+    RetryBudget budget() {
+        return budget;
+    }
+
+    long backoffMillis(int retry) {
+        long bound = initialBackoffMillis << Math.min(retry - 1, 30);
+        if (bound <= 0 || bound > maxBackoffMillis) {
+            bound = maxBackoffMillis;
+        }
+        return (long) (ThreadLocalRandom.current().nextDouble() * bound);
+    }
+
+    long maxBackoffMillis() {
+        return maxBackoffMillis;
+    }
+
+    /**
+     * @param method HTTP method of the request, {@code null} when unknown
+     */
+    boolean retries(RestClientException error, String method) {
+        if (!retryNonIdempotent && (method == null || !IDEMPOTENT_METHODS.contains(method))) {
+            return false;
+        }
+        int status = error.status();
+        Boolean rule = status >= 0 && status < STATUSES ? statusRules[status] : null;
+        return rule == null ? error.isRetryable() : rule;
+    }
+
+    boolean retries(Throwable failure) {
+        // rules are kept in the order they were added and the last matching one wins
+        Boolean decision = null;
+        for (Map.Entry<Class<? extends Throwable>, Boolean> rule : exceptionRules.entrySet()) {
+            for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+                if (rule.getKey().isInstance(cause)) {
+                    decision = rule.getValue();
+                    break;
+                }
+            }
+        }
+        return decision != null && decision;
+    }
+
+    private RetryPolicy statusRule(boolean retry, int... statuses) {
+        for (int status : statuses) {
+            if (status < 0 || status >= STATUSES) {
+                throw new IllegalArgumentException("Invalid status " + status);
+            }
+            statusRules[status] = retry;
+        }
+        return this;
+    }
+}
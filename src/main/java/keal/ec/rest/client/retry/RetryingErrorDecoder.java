@@ -0,0 +1,63 @@
+package keal.ec.rest.client.retry;
+
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.codec.ErrorDecoder;
+import keal.ec.rest.client.error.RestClientException;
+import keal.ec.rest.client.transport.StreamingBodies;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collection;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wraps the {@link RestClientException}s a {@link RetryPolicy} retries in a Feign {@link RetryableException},
+ * which is the only failure Feign hands to its retryer. The {@code Retry-After} header is kept on it. The errors of
+ * streaming requests are never wrapped, their body cannot be sent again.
+ */
+final class RetryingErrorDecoder implements ErrorDecoder {
+
+    private final ErrorDecoder delegate;
+    private final RetryPolicy policy;
+
+    RetryingErrorDecoder(ErrorDecoder delegate, RetryPolicy policy) {
+        this.delegate = delegate;
+        this.policy = policy;
+    }
+
+    @Override
+    public Exception decode(String methodKey, Response response) {
+        Exception error = delegate.decode(methodKey, response);
+        Request request = response.request();
+        if (request != null && StreamingBodies.isStreaming(request)) {
+            // the body of a streaming request cannot be sent again
+            return error;
+        }
+        String method = request == null ? null : request.method();
+        if (error instanceof RestClientException && policy.retries((RestClientException) error, method)) {
+            return new RetryableException("status " + response.status() + " reading " + methodKey, error,
+                    retryAfter(response));
+        }
+        return error;
+    }
+
+    private static Date retryAfter(Response response) {
+        Collection<String> values = response.headers().get("Retry-After");
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        String value = values.iterator().next().trim();
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return new Date(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(Long.parseLong(value)));
+            }
+            return Date.from(ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant());
+        } catch (NumberFormatException | DateTimeParseException e) {
+            return null;
+        }
+    }
+}
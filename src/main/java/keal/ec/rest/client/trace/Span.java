@@ -0,0 +1,133 @@
+package keal.ec.rest.client.trace;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Finished HTTP call of a client, with the time spent in each phase of the call.
+ */
+public final class Span {
+
+    /**
+     * Phases of an HTTP call. Phases that did not happen, like DNS and TLS on a pooled connection, are absent.
+     */
+    public enum Phase {
+        /**
+         * from the start of the call until a connection is available, including DNS, connect and TLS
+         */
+        CONNECTION_ACQUIRE,
+        /**
+         * resolving the host name
+         */
+        DNS,
+        /**
+         * opening the connection, including the TLS handshake
+         */
+        CONNECT,
+        /**
+         * TLS handshake
+         */
+        TLS,
+        /**
+         * writing the request headers and body
+         */
+        REQUEST_WRITE,
+        /**
+         * from the request written until the first response byte, the time spent by the server
+         */
+        SERVER_WAIT,
+        /**
+         * reading the response headers
+         */
+        RESPONSE_HEADERS,
+        /**
+         * reading the response body, which includes decoding it as the decoder reads the stream
+         */
+        RESPONSE_BODY
+    }
+
+    private final TraceContext context;
+    private final String method;
+    private final String url;
+    private final long startEpochMillis;
+    private final long durationNanos;
+    private final int status;
+    private final Throwable error;
+    private final Map<Phase, Long> phases;
+
+    Span(TraceContext context, String method, String url, long startEpochMillis,
+         long durationNanos, int status, Throwable error, EnumMap<Phase, Long> phases) {
+        this.context = context;
+        this.method = method;
+        this.url = url;
+        this.startEpochMillis = startEpochMillis;
+        this.durationNanos = durationNanos;
+        this.status = status;
+        this.error = error;
+        this.phases = Collections.unmodifiableMap(phases);
+    }
+
+    public String traceId() {
+        return context.traceId();
+    }
+
+    public String spanId() {
+        return context.spanId();
+    }
+
+    /**
+     * @return HTTP method
+     */
+    public String method() {
+        return method;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    public long startEpochMillis() {
+        return startEpochMillis;
+    }
+
+    public long durationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * @return response status, -1 when the call failed before the response headers
+     */
+    public int status() {
+        return status;
+    }
+
+    /**
+     * @return failure of the call, {@code null} when it completed
+     */
+    public Throwable error() {
+        return error;
+    }
+
+    /**
+     * @return nanoseconds spent in each phase that happened
+     */
+    public Map<Phase, Long> phases() {
+        return phases;
+    }
+
+    /**
+     * @param phase phase of the call
+     * @return nanoseconds spent in the phase, 0 when it did not happen
+     */
+    public long phaseNanos(Phase phase) {
+        Long nanos = phases.get(phase);
+        return nanos == null ? 0 : nanos;
+    }
+
+    @Override
+    public String toString() {
+        return "Span{" + context + ' ' + method + ' ' + url + " status=" + status
+                + " durationNanos=" + durationNanos + " phases=" + phases + '}';
+    }
+}
@@ -0,0 +1,17 @@
+package keal.ec.rest.client.trace;
+
+/**
+ * Receives the finished spans of the sampled calls, to hand them over to a tracing backend. Export runs on the
+ * thread finishing the call and must not block.
+ */
+@FunctionalInterface
+public interface SpanExporter {
+
+    /**
+     * Exporter dropping every span.
+     */
+    SpanExporter NOOP = span -> {
+    };
+
+    void export(Span span);
+}
@@ -0,0 +1,136 @@
+package keal.ec.rest.client.trace;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Position of a call in a distributed trace, as carried by the W3C {@code traceparent} header: the trace id shared
+ * by every span of the trace, the id of the current span and whether the trace is sampled.
+ */
+public final class TraceContext {
+
+    /**
+     * Name of the W3C trace context header.
+     */
+    public static final String TRACEPARENT = "traceparent";
+
+    private static final String VERSION = "00";
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final String traceId;
+    private final String spanId;
+    private final boolean sampled;
+
+    private TraceContext(String traceId, String spanId, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.sampled = sampled;
+    }
+
+    /**
+     * @param sampled whether the spans of the trace are exported
+     * @return the context of a new trace
+     */
+    public static TraceContext root(boolean sampled) {
+        return new TraceContext(randomId(32), randomId(16), sampled);
+    }
+
+    /**
+     * @param traceparent value of a {@code traceparent} header
+     * @return the context carried by the header, {@code null} when the header is missing or malformed
+     */
+    public static TraceContext parse(String traceparent) {
+        if (traceparent == null || traceparent.length() < 55) {
+            return null;
+        }
+        String[] parts = traceparent.trim().split("-");
+        if (parts.length < 4 || parts[0].length() != 2 || "ff".equals(parts[0]) || !isHex(parts[0])) {
+            return null;
+        }
+        String traceId = parts[1];
+        String spanId = parts[2];
+        String flags = parts[3];
+        if (traceId.length() != 32 || !isHex(traceId) || INVALID_TRACE_ID.equals(traceId)
+                || spanId.length() != 16 || !isHex(spanId) || INVALID_SPAN_ID.equals(spanId)
+                || flags.length() != 2 || !isHex(flags)) {
+            return null;
+        }
+        return new TraceContext(traceId, spanId, (Integer.parseInt(flags, 16) & 1) == 1);
+    }
+
+    /**
+     * @return a context of the same trace with a new span id, for a call made from this span
+     */
+    public TraceContext child() {
+        return new TraceContext(traceId, randomId(16), sampled);
+    }
+
+    public String traceId() {
+        return traceId;
+    }
+
+    public String spanId() {
+        return spanId;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * @return the {@code traceparent} header value of this context
+     */
+    public String traceparent() {
+        return VERSION + '-' + traceId + '-' + spanId + (sampled ? "-01" : "-00");
+    }
+
+    private static String randomId(int length) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder id = new StringBuilder(length);
+        while (id.length() < length) {
+            long value = random.nextLong();
+            if (value == 0) {
+                continue;
+            }
+            String hex = Long.toHexString(value);
+            for (int i = hex.length(); i < 16; i++) {
+                id.append('0');
+            }
+            id.append(hex);
+        }
+        return id.substring(0, length);
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TraceContext)) {
+            return false;
+        }
+        TraceContext that = (TraceContext) o;
+        return sampled == that.sampled && traceId.equals(that.traceId) && spanId.equals(that.spanId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(traceId, spanId, sampled);
+    }
+
+    @Override
+    public String toString() {
+        return traceparent();
+    }
+}
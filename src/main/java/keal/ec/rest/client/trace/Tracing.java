@@ -0,0 +1,79 @@
+package keal.ec.rest.client.trace;
+
+import feign.RequestInterceptor;
+import okhttp3.EventListener;
+import okhttp3.OkHttpClient;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Tracing of the calls of a client. Every request attempt gets a new span, propagated to the server in a W3C
+ * {@code traceparent} header by the {@link #interceptor()}, and timed phase by phase by an OkHttp
+ * {@link EventListener}. Finished spans of sampled traces go to the {@link SpanExporter}, which drops them by
+ * default.
+ * <p>
+ * Requests join the trace of the {@link #parent(Supplier) parent} context, typically the context of the inbound
+ * request being served, or start a new trace.
+ */
+public final class Tracing {
+
+    private SpanExporter exporter = SpanExporter.NOOP;
+    private Supplier<TraceContext> parent = () -> null;
+    private boolean sampled = true;
+
+    public static Tracing get() {
+        return new Tracing();
+    }
+
+    /**
+     * @param exporter receiver of the finished spans
+     * @return this tracing
+     */
+    public Tracing exporter(SpanExporter exporter) {
+        this.exporter = Objects.requireNonNull(exporter, "exporter");
+        return this;
+    }
+
+    /**
+     * @param parent supplier of the trace context of the caller, returning {@code null} to start a new trace
+     * @return this tracing
+     */
+    public Tracing parent(Supplier<TraceContext> parent) {
+        this.parent = Objects.requireNonNull(parent, "parent");
+        return this;
+    }
+
+    /**
+     * Whether the traces started by the client are sampled, {@code true} by default. Requests joining a parent
+     * trace follow the sampling decision of the parent.
+     *
+     * @param sampled whether new traces are sampled
+     * @return this tracing
+     */
+    public Tracing sampled(boolean sampled) {
+        this.sampled = sampled;
+        return this;
+    }
+
+    /**
+     * @return interceptor adding the {@code traceparent} header of a new span to every request
+     */
+    public RequestInterceptor interceptor() {
+        return template -> {
+            TraceContext caller = parent.get();
+            TraceContext context = caller == null ? TraceContext.root(sampled) : caller.child();
+            template.header(TraceContext.TRACEPARENT, context.traceparent());
+        };
+    }
+
+    /**
+     * @param okHttpClient OkHttp client sending the requests
+     * @return a client sharing the connection pool and dispatcher of the given one, timing the phases of its calls
+     */
+    public OkHttpClient instrument(OkHttpClient okHttpClient) {
+        return okHttpClient.newBuilder()
+                .eventListenerFactory(call -> new TracingEventListener(call, exporter))
+                .build();
+    }
+}
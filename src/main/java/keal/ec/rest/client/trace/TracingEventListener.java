@@ -0,0 +1,169 @@
+package keal.ec.rest.client.trace;
+
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.EventListener;
+import okhttp3.Handshake;
+import okhttp3.Protocol;
+import okhttp3.Request;
+import okhttp3.Response;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.EnumMap;
+import java.util.List;
+
+/**
+ * Times the phases of one OkHttp call and exports its span when the call ends. Calls without a sampled
+ * {@code traceparent} header are not timed. Phases repeated within a call, like connecting to a second route or
+ * following a redirect, add up.
+ */
+final class TracingEventListener extends EventListener {
+
+    private final SpanExporter exporter;
+    private final TraceContext context;
+    private final String method;
+    private final String url;
+    private final EnumMap<Span.Phase, Long> phases = new EnumMap<>(Span.Phase.class);
+    private long callStart;
+    private long startEpochMillis;
+    private long dnsStart;
+    private long connectStart;
+    private long tlsStart;
+    private long requestStart;
+    private long requestEnd;
+    private long responseHeadersStart;
+    private long responseBodyStart;
+    private int status = -1;
+    private boolean acquired;
+
+    TracingEventListener(Call call, SpanExporter exporter) {
+        Request request = call.request();
+        TraceContext traceContext = TraceContext.parse(request.header(TraceContext.TRACEPARENT));
+        this.exporter = exporter;
+        this.context = traceContext != null && traceContext.isSampled() ? traceContext : null;
+        this.method = request.method();
+        this.url = request.url().toString();
+    }
+
+    @Override
+    public void callStart(Call call) {
+        callStart = System.nanoTime();
+        startEpochMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public void dnsStart(Call call, String domainName) {
+        dnsStart = System.nanoTime();
+    }
+
+    @Override
+    public void dnsEnd(Call call, String domainName, List<InetAddress> inetAddressList) {
+        add(Span.Phase.DNS, dnsStart);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        connectStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectStart(Call call) {
+        tlsStart = System.nanoTime();
+    }
+
+    @Override
+    public void secureConnectEnd(Call call, Handshake handshake) {
+        add(Span.Phase.TLS, tlsStart);
+    }
+
+    @Override
+    public void connectEnd(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol) {
+        add(Span.Phase.CONNECT, connectStart);
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress, Proxy proxy, Protocol protocol,
+                              IOException ioe) {
+        add(Span.Phase.CONNECT, connectStart);
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        if (!acquired) {
+            acquired = true;
+            add(Span.Phase.CONNECTION_ACQUIRE, callStart);
+        }
+    }
+
+    @Override
+    public void requestHeadersStart(Call call) {
+        requestStart = System.nanoTime();
+    }
+
+    @Override
+    public void requestHeadersEnd(Call call, Request request) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void requestBodyEnd(Call call, long byteCount) {
+        requestEnd = System.nanoTime();
+    }
+
+    @Override
+    public void responseHeadersStart(Call call) {
+        responseHeadersStart = System.nanoTime();
+        if (requestStart != 0) {
+            add(Span.Phase.REQUEST_WRITE, requestStart, requestEnd);
+            add(Span.Phase.SERVER_WAIT, requestEnd, responseHeadersStart);
+            requestStart = 0;
+        }
+    }
+
+    @Override
+    public void responseHeadersEnd(Call call, Response response) {
+        status = response.code();
+        add(Span.Phase.RESPONSE_HEADERS, responseHeadersStart);
+    }
+
+    @Override
+    public void responseBodyStart(Call call) {
+        responseBodyStart = System.nanoTime();
+    }
+
+    @Override
+    public void responseBodyEnd(Call call, long byteCount) {
+        add(Span.Phase.RESPONSE_BODY, responseBodyStart);
+    }
+
+    @Override
+    public void callEnd(Call call) {
+        export(null);
+    }
+
+    @Override
+    public void callFailed(Call call, IOException ioe) {
+        export(ioe);
+    }
+
+    private void add(Span.Phase phase, long start) {
+        add(phase, start, System.nanoTime());
+    }
+
+    private void add(Span.Phase phase, long start, long end) {
+        if (context != null && start != 0) {
+            phases.merge(phase, Math.max(0, end - start), Long::sum);
+        }
+    }
+
+    private void export(Throwable error) {
+        if (context == null) {
+            return;
+        }
+        exporter.export(new Span(context, method, url, startEpochMillis, System.nanoTime() - callStart, status,
+                error, phases));
+    }
+}
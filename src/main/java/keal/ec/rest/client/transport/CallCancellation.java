@@ -0,0 +1,62 @@
+package keal.ec.rest.client.transport;
+
+import okhttp3.Call;
+
+/**
+ * Lets another thread abort the request the current thread sends through {@link OkHttpTransport}. The handle is
+ * bound to the sending thread with {@link #bind()} and unbound with {@link #close()}; {@link #cancel()} may be
+ * called from any thread, before or while the request is in flight.
+ */
+public final class CallCancellation implements AutoCloseable {
+
+    private static final ThreadLocal<CallCancellation> CURRENT = new ThreadLocal<>();
+
+    private Call call;
+    private boolean cancelled;
+
+    private CallCancellation() {
+    }
+
+    /**
+     * @return a handle bound to the current thread until it is closed
+     */
+    public static CallCancellation bind() {
+        CallCancellation cancellation = new CallCancellation();
+        CURRENT.set(cancellation);
+        return cancellation;
+    }
+
+    /**
+     * Cancels the request in flight, or the next one sent by the bound thread.
+     */
+    public void cancel() {
+        Call current;
+        synchronized (this) {
+            cancelled = true;
+            current = call;
+        }
+        if (current != null) {
+            current.cancel();
+        }
+    }
+
+    @Override
+    public void close() {
+        CURRENT.remove();
+    }
+
+    static void attach(Call call) {
+        CallCancellation cancellation = CURRENT.get();
+        if (cancellation == null) {
+            return;
+        }
+        boolean cancelled;
+        synchronized (cancellation) {
+            cancellation.call = call;
+            cancelled = cancellation.cancelled;
+        }
+        if (cancelled) {
+            call.cancel();
+        }
+    }
+}
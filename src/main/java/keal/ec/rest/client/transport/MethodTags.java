@@ -0,0 +1,94 @@
+package keal.ec.rest.client.transport;
+
+import feign.Client;
+import feign.Contract;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tags every request with the Feign config key of the api method that sent it, so client decorators can apply
+ * per-method policies such as caching. The tag travels as an internal request header, added by the
+ * {@link #contract(Contract)} decorator and removed by the {@link #untagging(Client)} client before the request
+ * reaches the wire.
+ */
+public final class MethodTags {
+
+    static final String HEADER = "X-RestClient-Method";
+
+    private MethodTags() {
+    }
+
+    /**
+     * @param delegate contract parsing the api interface
+     * @return a contract adding the method tag to the request template of every method
+     */
+    public static Contract contract(Contract delegate) {
+        return new TaggingContract(delegate);
+    }
+
+    /**
+     * @param delegate client sending the requests
+     * @return a client removing the method tag before the request is sent
+     */
+    public static Client untagging(Client delegate) {
+        return new UntaggingClient(delegate);
+    }
+
+    /**
+     * @param request request sent by a client built with a tagging contract
+     * @return the config key of the api method that sent the request, {@code null} when not tagged
+     */
+    public static String methodKey(Request request) {
+        Collection<String> values = request.headers().get(HEADER);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.iterator().next();
+    }
+
+    private static final class TaggingContract implements Contract {
+
+        private final Contract delegate;
+
+        private TaggingContract(Contract delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public List<MethodMetadata> parseAndValidatateMetadata(Class<?> targetType) {
+            List<MethodMetadata> metadata = delegate.parseAndValidatateMetadata(targetType);
+            for (MethodMetadata md : metadata) {
+                md.template().header(HEADER, md.configKey());
+            }
+            return metadata;
+        }
+    }
+
+    private static final class UntaggingClient implements Client {
+
+        private final Client delegate;
+
+        private UntaggingClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            if (!request.headers().containsKey(HEADER)) {
+                return delegate.execute(request, options);
+            }
+            Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+            headers.remove(HEADER);
+            Request untagged = Request.create(request.method(), request.url(), headers, request.body(),
+                    request.charset());
+            return delegate.execute(untagged, options);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package keal.ec.rest.client.transport;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a request whose body is written by {@link StreamingBodies} fails to be sent. The body cannot be
+ * written again, so the request is not retried; the cause is the original failure.
+ */
+public class NonReplayableBodyException extends IOException {
+
+    NonReplayableBodyException(IOException cause) {
+        super(cause.getMessage(), cause);
+    }
+}
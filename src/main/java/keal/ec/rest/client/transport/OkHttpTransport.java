@@ -0,0 +1,219 @@
+package keal.ec.rest.client.transport;
+
+import feign.Client;
+import okhttp3.Call;
+import okhttp3.Headers;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
+import okhttp3.internal.http.UnrepeatableRequestBody;
+import okio.BufferedSink;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign client sending requests through OkHttp. Besides {@code byte[]} bodies it writes the bodies registered with
+ * {@link StreamingBodies} straight to the connection sink, so they are never held in memory as a whole. Calls
+ * can be aborted from another thread through {@link CallCancellation}.
+ */
+final class OkHttpTransport implements Client {
+
+    private final OkHttpClient delegate;
+    private final ConcurrentMap<OptionsKey, OkHttpClient> derived = new ConcurrentHashMap<>();
+
+    OkHttpTransport(OkHttpClient delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the OkHttp client applying the timeouts and redirect policy of the options, the shared client itself
+     * when they match it; other clients share its pool and dispatcher and are built once per distinct options
+     */
+    OkHttpClient client(feign.Request.Options options) {
+        if (delegate.connectTimeoutMillis() == options.connectTimeoutMillis()
+                && delegate.readTimeoutMillis() == options.readTimeoutMillis()
+                && delegate.followRedirects() == options.isFollowRedirects()) {
+            return delegate;
+        }
+        return derived.computeIfAbsent(new OptionsKey(options), key -> delegate.newBuilder()
+                .connectTimeout(key.connectTimeoutMillis, TimeUnit.MILLISECONDS)
+                .readTimeout(key.readTimeoutMillis, TimeUnit.MILLISECONDS)
+                .followRedirects(key.followRedirects)
+                .build());
+    }
+
+    @Override
+    public feign.Response execute(feign.Request input, feign.Request.Options options) throws IOException {
+        Call call = client(options).newCall(toOkHttpRequest(input));
+        CallCancellation.attach(call);
+        Response response = call.execute();
+        return feign.Response.builder()
+                .status(response.code())
+                .reason(response.message())
+                .headers(toMap(response.headers()))
+                .body(toBody(response.body()))
+                .request(input)
+                .build();
+    }
+
+    private static Request toOkHttpRequest(feign.Request input) throws IOException {
+        Request.Builder builder = new Request.Builder().url(input.url());
+        MediaType mediaType = null;
+        boolean hasAccept = false;
+        for (Map.Entry<String, Collection<String>> header : input.headers().entrySet()) {
+            String name = header.getKey();
+            if (name.equalsIgnoreCase(StreamingBodies.HEADER)) {
+                continue;
+            }
+            if (name.equalsIgnoreCase("Accept")) {
+                hasAccept = true;
+            }
+            for (String value : header.getValue()) {
+                if (name.equalsIgnoreCase("Content-Type")) {
+                    // OkHttp sets the header from the body media type
+                    mediaType = MediaType.parse(value);
+                } else {
+                    builder.addHeader(name, value);
+                }
+            }
+        }
+        if (!hasAccept) {
+            // some servers choke on the default accept string
+            builder.addHeader("Accept", "*/*");
+        }
+        builder.method(input.method(), toBody(input, mediaType));
+        return builder.build();
+    }
+
+    private static RequestBody toBody(feign.Request input, MediaType mediaType) throws IOException {
+        boolean methodWithBody = "POST".equals(input.method()) || "PUT".equals(input.method())
+                || "PATCH".equals(input.method());
+        if (StreamingBodies.isStreaming(input)) {
+            StreamingBodies.BodyWriter writer = StreamingBodies.take();
+            if (writer == null) {
+                throw new IOException("Streaming request body already sent, it cannot be replayed");
+            }
+            return new StreamingRequestBody(mediaType, writer);
+        }
+        byte[] body = input.body();
+        if (body == null && methodWithBody) {
+            // OkHttp rejects POST and PUT requests without a body
+            body = new byte[0];
+        }
+        return body == null ? null : RequestBody.create(mediaType, body);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Map<String, Collection<String>> toMap(Headers headers) {
+        return (Map) headers.toMultimap();
+    }
+
+    private static feign.Response.Body toBody(ResponseBody input) {
+        if (input == null || input.contentLength() == 0) {
+            if (input != null) {
+                input.close();
+            }
+            return null;
+        }
+        Integer length = input.contentLength() >= 0 && input.contentLength() <= Integer.MAX_VALUE
+                ? (int) input.contentLength() : null;
+        return new feign.Response.Body() {
+
+            @Override
+            public Integer length() {
+                return length;
+            }
+
+            @Override
+            public boolean isRepeatable() {
+                return false;
+            }
+
+            @Override
+            public InputStream asInputStream() {
+                return input.byteStream();
+            }
+
+            @Override
+            public Reader asReader() {
+                return input.charStream();
+            }
+
+            @Override
+            public void close() {
+                input.close();
+            }
+        };
+    }
+
+    /**
+     * Streaming body, marked unrepeatable so OkHttp fails the call instead of writing the consumed body again on a
+     * stale pooled connection or a follow-up request.
+     */
+    private static final class StreamingRequestBody extends RequestBody implements UnrepeatableRequestBody {
+
+        private final MediaType mediaType;
+        private final StreamingBodies.BodyWriter writer;
+
+        private StreamingRequestBody(MediaType mediaType, StreamingBodies.BodyWriter writer) {
+            this.mediaType = mediaType;
+            this.writer = writer;
+        }
+
+        @Override
+        public MediaType contentType() {
+            return mediaType;
+        }
+
+        @Override
+        public long contentLength() {
+            return writer.contentLength();
+        }
+
+        @Override
+        public void writeTo(BufferedSink sink) throws IOException {
+            writer.writeTo(sink.outputStream());
+        }
+    }
+
+    private static final class OptionsKey {
+
+        private final int connectTimeoutMillis;
+        private final int readTimeoutMillis;
+        private final boolean followRedirects;
+
+        private OptionsKey(feign.Request.Options options) {
+            this.connectTimeoutMillis = options.connectTimeoutMillis();
+            this.readTimeoutMillis = options.readTimeoutMillis();
+            this.followRedirects = options.isFollowRedirects();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof OptionsKey)) {
+                return false;
+            }
+            OptionsKey that = (OptionsKey) o;
+            return connectTimeoutMillis == that.connectTimeoutMillis && readTimeoutMillis == that.readTimeoutMillis
+                    && followRedirects == that.followRedirects;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (31 * connectTimeoutMillis + readTimeoutMillis) + (followRedirects ? 1 : 0);
+        }
+    }
+}
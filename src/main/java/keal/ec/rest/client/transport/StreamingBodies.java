@@ -0,0 +1,114 @@
+package keal.ec.rest.client.transport;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Hands request bodies that are written straight to the connection over from the encoder to
+ * {@link OkHttpTransport}. Feign requests can only carry a {@code byte[]} body, so the encoder leaves the body
+ * empty, marks the template with an internal header and binds the writer to the calling thread; Feign encodes and
+ * sends a request on the same thread, where the transport takes the writer back.
+ * <p>
+ * A streaming body is written once: its requests are never retried and their I/O failures surface as a
+ * {@link NonReplayableBodyException}. The {@link #releasing(Client)} client drops the binding once the request is
+ * done, even when it never reached the transport.
+ */
+public final class StreamingBodies {
+
+    static final String HEADER = "X-RestClient-Body";
+
+    private static final ThreadLocal<BodyWriter> CURRENT = new ThreadLocal<>();
+
+    private StreamingBodies() {
+    }
+
+    /**
+     * Writes a request body to the connection.
+     */
+    public interface BodyWriter {
+
+        /**
+         * @param out connection sink, must not be closed by the writer
+         * @throws IOException when the body cannot be written
+         */
+        void writeTo(OutputStream out) throws IOException;
+
+        /**
+         * @return body length in bytes, or -1 when unknown and the body is sent chunked
+         */
+        default long contentLength() {
+            return -1;
+        }
+    }
+
+    /**
+     * Binds a streaming body to the request being encoded on the current thread.
+     *
+     * @param template request template being encoded
+     * @param writer   writer of the body
+     */
+    public static void attach(RequestTemplate template, BodyWriter writer) {
+        template.header(HEADER, "stream");
+        CURRENT.set(writer);
+    }
+
+    /**
+     * Releases a streaming body bound by a previous request that never reached the transport.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @param request request about to be sent
+     * @return whether the body of the request is bound to the thread that encoded it
+     */
+    public static boolean isStreaming(Request request) {
+        return request.headers().containsKey(HEADER);
+    }
+
+    /**
+     * @param delegate client sending the requests, outermost client of the chain
+     * @return a client releasing the streaming body of every request once it is done, and failing the requests
+     * whose body could not be sent with a {@link NonReplayableBodyException}
+     */
+    public static Client releasing(Client delegate) {
+        return new ReleasingClient(delegate);
+    }
+
+    static BodyWriter take() {
+        BodyWriter writer = CURRENT.get();
+        CURRENT.remove();
+        return writer;
+    }
+
+    private static final class ReleasingClient implements Client {
+
+        private final Client delegate;
+
+        private ReleasingClient(Client delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            if (!isStreaming(request)) {
+                return delegate.execute(request, options);
+            }
+            try {
+                return delegate.execute(request, options);
+            } catch (NonReplayableBodyException e) {
+                throw e;
+            } catch (IOException e) {
+                throw new NonReplayableBodyException(e);
+            } finally {
+                clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package keal.ec.rest.client.transport;
+
+import feign.Client;
+import feign.Request;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide registry of OkHttp transports. Every client built by {@link keal.ec.rest.client.RestClient} with the
+ * same {@link TransportSettings} shares one connection pool and dispatcher, so connections to a host are reused
+ * across Feign proxies instead of being opened again by each of them. The shared clients use the timeouts and
+ * redirect policy of Feign's default {@link feign.Request.Options}, so the calls of clients with default options
+ * run on them as they are.
+ */
+public final class TransportRegistry {
+
+    private static final TransportSettings DEFAULT_SETTINGS = TransportSettings.get();
+
+    private static final Request.Options DEFAULT_OPTIONS = new Request.Options();
+
+    private static final ConcurrentMap<TransportSettings, Transport> TRANSPORTS = new ConcurrentHashMap<>();
+
+    private TransportRegistry() {
+    }
+
+    /**
+     * @return the OkHttp client shared by every client built with default settings
+     */
+    public static OkHttpClient shared() {
+        return transport(DEFAULT_SETTINGS).okHttpClient;
+    }
+
+    /**
+     * @param settings pool and dispatcher settings
+     * @return the OkHttp client shared by every client built with equal settings
+     */
+    public static OkHttpClient okHttpClient(TransportSettings settings) {
+        return transport(settings).okHttpClient;
+    }
+
+    /**
+     * @param settings pool and dispatcher settings, or {@code null} for the defaults
+     * @return a Feign client backed by the shared OkHttp client for the given settings
+     */
+    public static Client client(TransportSettings settings) {
+        return transport(settings == null ? DEFAULT_SETTINGS : settings).client;
+    }
+
+    /**
+     * Wraps an externally owned OkHttp client. The registry does not keep a reference to it, its lifecycle stays
+     * with the caller.
+     *
+     * @param okHttpClient externally owned OkHttp client
+     * @return a Feign client backed by the given OkHttp client
+     */
+    public static Client client(OkHttpClient okHttpClient) {
+        Objects.requireNonNull(okHttpClient, "okHttpClient");
+        return new OkHttpTransport(okHttpClient);
+    }
+
+    /**
+     * Closes the idle connections of every registered transport, the transports stay usable.
+     */
+    public static void evictIdleConnections() {
+        TRANSPORTS.values().forEach(transport -> transport.okHttpClient.connectionPool().evictAll());
+    }
+
+    private static Transport transport(TransportSettings settings) {
+        Transport transport = TRANSPORTS.get(settings);
+        if (transport == null) {
+            TransportSettings key = settings.copy();
+            transport = TRANSPORTS.computeIfAbsent(key, TransportRegistry::newTransport);
+        }
+        return transport;
+    }
+
+    private static Transport newTransport(TransportSettings settings) {
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(settings.maxRequests());
+        dispatcher.setMaxRequestsPerHost(settings.maxRequestsPerHost());
+        OkHttpClient okHttpClient = new OkHttpClient.Builder()
+                .connectionPool(new ConnectionPool(settings.maxIdleConnections(),
+                        settings.keepAliveMillis(), TimeUnit.MILLISECONDS))
+                .dispatcher(dispatcher)
+                .connectTimeout(DEFAULT_OPTIONS.connectTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(DEFAULT_OPTIONS.readTimeoutMillis(), TimeUnit.MILLISECONDS)
+                .followRedirects(DEFAULT_OPTIONS.isFollowRedirects())
+                .build();
+        return new Transport(okHttpClient);
+    }
+
+    private static final class Transport {
+
+        private final OkHttpClient okHttpClient;
+        private final Client client;
+
+        private Transport(OkHttpClient okHttpClient) {
+            this.okHttpClient = okHttpClient;
+            this.client = new OkHttpTransport(okHttpClient);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package keal.ec.rest.client.transport;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Connection pool and dispatcher settings for the OkHttp transports shared through {@link TransportRegistry}.
+ * Clients built with equal settings share the same connection pool.
+ */
+public class TransportSettings {
+
+    private int maxIdleConnections = 5;
+    private long keepAliveMillis = TimeUnit.MINUTES.toMillis(5);
+    private int maxRequests = 64;
+    private int maxRequestsPerHost = 5;
+
+    public static TransportSettings get() {
+        return new TransportSettings();
+    }
+
+    public TransportSettings maxIdleConnections(int maxIdleConnections) {
+        if (maxIdleConnections < 0) {
+            throw new IllegalArgumentException("maxIdleConnections < 0: " + maxIdleConnections);
+        }
+        this.maxIdleConnections = maxIdleConnections;
+        return this;
+    }
+
+    public TransportSettings keepAlive(long keepAlive, TimeUnit unit) {
+        if (keepAlive <= 0) {
+            throw new IllegalArgumentException("keepAlive <= 0: " + keepAlive);
+        }
+        this.keepAliveMillis = unit.toMillis(keepAlive);
+        return this;
+    }
+
+    public TransportSettings maxRequests(int maxRequests) {
+        if (maxRequests < 1) {
+            throw new IllegalArgumentException("maxRequests < 1: " + maxRequests);
+        }
+        this.maxRequests = maxRequests;
+        return this;
+    }
+
+    public TransportSettings maxRequestsPerHost(int maxRequestsPerHost) {
+        if (maxRequestsPerHost < 1) {
+            throw new IllegalArgumentException("maxRequestsPerHost < 1: " + maxRequestsPerHost);
+        }
+        this.maxRequestsPerHost = maxRequestsPerHost;
+        return this;
+    }
+
+    public int maxIdleConnections() {
+        return maxIdleConnections;
+    }
+
+    public long keepAliveMillis() {
+        return keepAliveMillis;
+    }
+
+    public int maxRequests() {
+        return maxRequests;
+    }
+
+    public int maxRequestsPerHost() {
+        return maxRequestsPerHost;
+    }
+
+    TransportSettings copy() {
+        TransportSettings copy = new TransportSettings();
+        copy.maxIdleConnections = maxIdleConnections;
+        copy.keepAliveMillis = keepAliveMillis;
+        copy.maxRequests = maxRequests;
+        copy.maxRequestsPerHost = maxRequestsPerHost;
+        return copy;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TransportSettings)) {
+            return false;
+        }
+        TransportSettings that = (TransportSettings) o;
+        return maxIdleConnections == that.maxIdleConnections
+                && keepAliveMillis == that.keepAliveMillis
+                && maxRequests == that.maxRequests
+                && maxRequestsPerHost == that.maxRequestsPerHost;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(maxIdleConnections, keepAliveMillis, maxRequests, maxRequestsPerHost);
+    }
+
+    @Override
+    public String toString() {
+        return "TransportSettings{maxIdleConnections=" + maxIdleConnections
+                + ", keepAliveMillis=" + keepAliveMillis
+                + ", maxRequests=" + maxRequests
+                + ", maxRequestsPerHost=" + maxRequestsPerHost + '}';
+    }
+}
@@ -0,0 +1,17 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Headers;
+import feign.RequestLine;
+
+import java.util.concurrent.CompletableFuture;
+
+@FunctionalInterface
+public interface OrderAsyncAPIClient {
+
+    @RequestLine("POST /order/")
+    @Headers("Content-Type: application/json")
+    CompletableFuture<OrderResponse> process(Order order);
+}
@@ -0,0 +1,22 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.client.collapse.Collapse;
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Headers;
+import feign.RequestLine;
+
+import java.util.List;
+
+public interface OrderBatchAPIClient {
+
+    @Collapse(batchMethod = "processAll", window = 50)
+    @RequestLine("POST /order/")
+    @Headers("Content-Type: application/json")
+    OrderResponse process(Order order);
+
+    @RequestLine("POST /orders/batch/")
+    @Headers("Content-Type: application/json")
+    List<OrderResponse> processAll(List<Order> orders);
+}
@@ -0,0 +1,16 @@
+package keal.ec.rest.client;
+
+
+import com.netflix.hystrix.HystrixCommand;
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Headers;
+import feign.RequestLine;
+
+@FunctionalInterface
+public interface OrderCommandAPIClient {
+
+    @RequestLine("POST /order/")
+    @Headers("Content-Type: application/json")
+    HystrixCommand<OrderResponse> process(Order order);
+}
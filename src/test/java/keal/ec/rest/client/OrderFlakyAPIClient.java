@@ -0,0 +1,13 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Param;
+import feign.RequestLine;
+
+@FunctionalInterface
+public interface OrderFlakyAPIClient {
+
+    @RequestLine("POST /orders/flaky/{failures}")
+    OrderResponse process(@Param("failures") Integer failures);
+}
@@ -0,0 +1,15 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Headers;
+import feign.RequestLine;
+
+@FunctionalInterface
+public interface OrderLimitedAPIClient {
+
+    @RequestLine("POST /swloworders/")
+    @Headers("Content-Type: application/json")
+    OrderResponse process(Order order);
+}
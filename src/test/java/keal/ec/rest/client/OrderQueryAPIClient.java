@@ -0,0 +1,15 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.client.cache.CachedResponse;
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Param;
+import feign.RequestLine;
+
+@FunctionalInterface
+public interface OrderQueryAPIClient {
+
+    @CachedResponse
+    @RequestLine("GET /order/{id}")
+    OrderResponse find(@Param("id") Integer id);
+}
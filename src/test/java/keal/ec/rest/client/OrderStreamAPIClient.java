@@ -0,0 +1,22 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.test.client.model.Order;
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Headers;
+import feign.RequestLine;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface OrderStreamAPIClient {
+
+    @RequestLine("POST /orders/batch/")
+    @Headers("Content-Type: application/json")
+    Stream<OrderResponse> stream(List<Order> orders);
+
+    @RequestLine("POST /orders/batch/")
+    @Headers("Content-Type: application/json")
+    Iterator<OrderResponse> iterate(List<Order> orders);
+}
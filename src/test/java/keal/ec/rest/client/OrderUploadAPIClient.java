@@ -0,0 +1,20 @@
+package keal.ec.rest.client;
+
+
+import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Headers;
+import feign.RequestLine;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface OrderUploadAPIClient {
+
+    @RequestLine("POST /orders/upload/")
+    @Headers("Content-Type: application/octet-stream")
+    OrderResponse upload(InputStream content);
+
+    @RequestLine("POST /orders/upload/")
+    @Headers("Content-Type: application/octet-stream")
+    OrderResponse upload(Path content);
+}
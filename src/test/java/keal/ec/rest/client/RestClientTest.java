@@ -2,14 +2,37 @@
 package keal.ec.rest.client;
 
 
+import keal.ec.rest.client.auth.CallCredentials;
 import keal.ec.rest.client.auth.JWTAuth;
 import keal.ec.rest.client.auth.JWTClient;
+import keal.ec.rest.client.auth.JWTToken;
+import keal.ec.rest.client.auth.JWTTokenProvider;
+import keal.ec.rest.client.balance.LoadBalancer;
+import keal.ec.rest.client.cache.ResponseCache;
+import keal.ec.rest.client.error.ForbiddenException;
 import keal.ec.rest.client.error.RestClientException;
+import keal.ec.rest.client.error.ServiceUnavailableException;
+import keal.ec.rest.client.hystrix.CommandSettings;
+import keal.ec.rest.client.hystrix.ExecutionMode;
+import keal.ec.rest.client.limit.ConcurrencyLimitExceededException;
+import keal.ec.rest.client.limit.ConcurrencyLimiter;
+import keal.ec.rest.client.metrics.InMemoryMetricsRegistry;
+import keal.ec.rest.client.metrics.MetricsRegistry;
+import keal.ec.rest.client.retry.RetryPolicy;
+import keal.ec.rest.client.transport.NonReplayableBodyException;
+import keal.ec.rest.client.trace.Span;
+import keal.ec.rest.client.trace.TraceContext;
+import keal.ec.rest.client.trace.Tracing;
+import keal.ec.rest.client.transport.TransportRegistry;
+import keal.ec.rest.client.transport.TransportSettings;
 
 import keal.ec.rest.test.client.JWTRestApplicationDummy;
 import keal.ec.rest.test.client.model.Order;
 import keal.ec.rest.test.client.model.OrderResponse;
+import feign.Contract;
 import feign.FeignException;
+import feign.Logger;
+import feign.RetryableException;
 import feign.hystrix.FallbackFactory;
 import org.junit.Assert;
 import org.junit.Before;
@@ -20,7 +43,29 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.io.ByteArrayInputStream;
+import java.lang.reflect.Type;
+import java.net.ConnectException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertThat;
@@ -70,6 +115,31 @@ public class RestClientTest {
     }
 
 
+    @Test
+    public void orderAPIJWTTokenProviderTest() {
+
+        JWTClient jwtClient = RestClient.get().
+                auth(JWTAuth.get().headerApiKey("api", "601f1889667efaebb33b8c12572835da3f027f78")).
+                apiClass(JWTClient.class).
+                url("http://localhost:".concat(randomPort.toString())).
+                build();
+
+        try (JWTTokenProvider tokenProvider = JWTTokenProvider.get(jwtClient)) {
+            OrderAPIClient orderAPIClient = RestClient.
+                    get().
+                    auth(tokenProvider).
+                    apiClass(OrderAPIClient.class).
+                    url("http://localhost:".
+                            concat(randomPort.toString()).
+                            concat("/api/")).
+                    build();
+
+            Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).getReturnCodeDesc());
+            Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).getReturnCodeDesc());
+            Assert.assertTrue(tokenProvider.expiresAt() > System.currentTimeMillis());
+        }
+    }
+
     @Test
     public void orderAPIJWTAuthBadAPIKeyTest() {
 
@@ -105,6 +175,9 @@ public class RestClientTest {
             Assert.assertEquals(403, error.status());
             String message = "\"status\":403,\"error\":\"Forbidden\",\"message\":\"Access Denied\",\"path\":\"/api/order/\"}";
             assertThat(error.getMessage(), containsString(message));
+            Assert.assertTrue(error instanceof ForbiddenException);
+            Assert.assertFalse(error.isRetryable());
+            Assert.assertEquals("Access Denied", error.error().get().getMessage());
         }
 
 
@@ -198,7 +271,7 @@ public class RestClientTest {
 
 
         FallbackFactory<OrderAPIClient> fallbackFactory = cause -> (order) -> {
-            if (cause instanceof RestClientException && ((RestClientException) cause).status() == 403) {
+            if (cause instanceof ForbiddenException) {
                 OrderResponse fallBackResponse = new OrderResponse();
                 fallBackResponse.returnCodeDesc(cause.getMessage());
                 return fallBackResponse;
@@ -229,4 +302,605 @@ public class RestClientTest {
 
 
     }
+
+    @Test
+    public void orderAPISharedTransportTest() {
+
+        TransportSettings settings = TransportSettings.get().
+                maxIdleConnections(10).
+                keepAlive(1, TimeUnit.MINUTES);
+
+        OrderAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                transport(settings).
+                build();
+
+        OrderResponse orderResponse = orderAPIClient.process(new Order());
+        Assert.assertEquals("Todo Bien :)", orderResponse.getReturnCodeDesc());
+
+        TransportSettings sameSettings = TransportSettings.get().
+                maxIdleConnections(10).
+                keepAlive(60, TimeUnit.SECONDS);
+        Assert.assertSame(TransportRegistry.okHttpClient(settings), TransportRegistry.okHttpClient(sameSettings));
+        Assert.assertTrue(TransportRegistry.okHttpClient(settings).connectionPool().connectionCount() > 0);
+    }
+
+    @Test
+    public void orderAPISampledLoggingTest() {
+
+        OrderAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                logLevel(Logger.Level.FULL).
+                logSampling(2).
+                build();
+
+        for (int i = 0; i < 3; i++) {
+            OrderResponse orderResponse = orderAPIClient.process(new Order());
+            Assert.assertEquals("Todo Bien :)", orderResponse.getReturnCodeDesc());
+        }
+    }
+
+    @Test
+    public void orderAsyncAPIJWTAuthTest() {
+
+        OrderAsyncAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderAsyncAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+
+        OrderResponse orderResponse = orderAPIClient.process(new Order()).join();
+        Assert.assertEquals("Todo Bien :)", orderResponse.getReturnCodeDesc());
+    }
+
+    @Test
+    public void orderAsyncAPIFallBackFactoryTest() {
+
+        FallbackFactory<OrderAsyncAPIClient> fallbackFactory = cause -> (order) -> {
+            OrderResponse fallBackResponse = new OrderResponse();
+            fallBackResponse.returnCode(((RestClientException) cause).status());
+            return CompletableFuture.completedFuture(fallBackResponse);
+        };
+
+        OrderAsyncAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(Optional.of("ND")).
+                apiClass(OrderAsyncAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build(fallbackFactory);
+
+        OrderResponse orderResponse = orderAPIClient.process(new Order()).join();
+        Assert.assertEquals(new Integer(403), orderResponse.getReturnCode());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void orderAsyncAPICommandSettingsTest() {
+
+        FallbackFactory<OrderAsyncAPIClient> fallbackFactory =
+                cause -> order -> CompletableFuture.completedFuture(new OrderResponse());
+
+        RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderAsyncAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                commandSettings(CommandSettings.get().timeout(5000)).
+                build(fallbackFactory);
+    }
+
+    @Test
+    public void orderBatchAPICollapseTest() throws Exception {
+
+        OrderBatchAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderBatchAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OrderResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Order order = new Order().partnerId(i);
+                responses.add(executor.submit(() -> orderAPIClient.process(order)));
+            }
+            int batched = 0;
+            for (int i = 0; i < responses.size(); i++) {
+                OrderResponse orderResponse = responses.get(i).get();
+                Assert.assertEquals(new Integer(i), orderResponse.getPartnerId());
+                batched = Math.max(batched, orderResponse.getReturnCode());
+            }
+            Assert.assertTrue(batched > 1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void orderBatchAPICollapsePerClientTest() throws Exception {
+
+        OrderBatchAPIClient missingAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderBatchAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/missing/")).
+                build();
+
+        OrderBatchAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderBatchAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<OrderResponse>> missing = new ArrayList<>();
+            List<Future<OrderResponse>> responses = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                Order order = new Order().partnerId(i);
+                missing.add(executor.submit(() -> missingAPIClient.process(order)));
+                responses.add(executor.submit(() -> orderAPIClient.process(order)));
+            }
+            for (int i = 0; i < responses.size(); i++) {
+                Assert.assertEquals(new Integer(i), responses.get(i).get().getPartnerId());
+            }
+            for (Future<OrderResponse> response : missing) {
+                try {
+                    response.get();
+                    Assert.fail("the batch of the missing api was sent to the order api");
+                } catch (ExecutionException e) {
+                    // expected, each client sends its batches to its own url
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void orderQueryAPICachedResponseTest() {
+
+        ResponseCache responseCache = ResponseCache.get().maxEntries(10);
+
+        OrderQueryAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderQueryAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                responseCache(responseCache).
+                build();
+
+        Assert.assertEquals(new Integer(7), orderAPIClient.find(7).getWorkorderId());
+        Assert.assertEquals(new Integer(7), orderAPIClient.find(7).getWorkorderId());
+        Assert.assertEquals(new Integer(8), orderAPIClient.find(8).getWorkorderId());
+
+        Assert.assertEquals(2, responseCache.misses());
+        Assert.assertEquals(1, responseCache.hits());
+        Assert.assertEquals(2, responseCache.size());
+    }
+
+    @Test
+    public void orderQueryAPICachedResponseCallCredentialsTest() {
+
+        ResponseCache responseCache = ResponseCache.get().maxEntries(10);
+
+        OrderQueryAPIClient orderAPIClient = RestClient.
+                get().
+                auth(CallCredentials.get()).
+                apiClass(OrderQueryAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                responseCache(responseCache).
+                build();
+
+        try (CallCredentials.Scope scope = CallCredentials.use(JWTToken.build(jwtToken))) {
+            Assert.assertEquals(new Integer(7), orderAPIClient.find(7).getWorkorderId());
+        }
+        try {
+            orderAPIClient.find(7);
+            Assert.fail("expected the response cached for other credentials not to be served");
+        } catch (ForbiddenException error) {
+            Assert.assertEquals(403, error.status());
+        }
+        Assert.assertEquals(0, responseCache.hits());
+    }
+
+    @Test
+    public void orderStreamAPIStreamingDecodeTest() {
+
+        OrderStreamAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderStreamAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            orders.add(new Order().partnerId(i));
+        }
+
+        try (Stream<OrderResponse> responses = orderAPIClient.stream(orders)) {
+            Assert.assertEquals(Arrays.asList(0, 1, 2),
+                    responses.map(OrderResponse::getPartnerId).collect(Collectors.toList()));
+        }
+
+        Iterator<OrderResponse> iterator = orderAPIClient.iterate(orders);
+        int count = 0;
+        while (iterator.hasNext()) {
+            Assert.assertEquals(new Integer(count++), iterator.next().getPartnerId());
+        }
+        Assert.assertEquals(3, count);
+    }
+
+    @Test
+    public void orderStreamAPIStreamingEncodeTest() {
+
+        OrderStreamAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderStreamAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                streamRequestBodies().
+                build();
+
+        List<Order> orders = Arrays.asList(new Order().partnerId(5), new Order().partnerId(6));
+
+        try (Stream<OrderResponse> responses = orderAPIClient.stream(orders)) {
+            Assert.assertEquals(Arrays.asList(5, 6),
+                    responses.map(OrderResponse::getPartnerId).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void orderUploadAPIStreamingBodyTest() throws Exception {
+
+        OrderUploadAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderUploadAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+
+        byte[] content = new byte[100_000];
+        Assert.assertEquals(new Integer(content.length),
+                orderAPIClient.upload(new ByteArrayInputStream(content)).getReturnCode());
+
+        Path file = Files.createTempFile("orders", ".bin");
+        try {
+            Files.write(file, content);
+            Assert.assertEquals(new Integer(content.length), orderAPIClient.upload(file).getReturnCode());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void orderUploadAPIStreamingBodyNotRetriedTest() {
+
+        OrderUploadAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderUploadAPIClient.class).
+                url("http://localhost:1/api/").
+                retryPolicy(RetryPolicy.get().backoff(1, 10, TimeUnit.MILLISECONDS)).
+                build();
+
+        try {
+            orderAPIClient.upload(new ByteArrayInputStream(new byte[10]));
+            Assert.fail("expected the upload to fail");
+        } catch (RetryableException error) {
+            Assert.assertTrue(error.getCause() instanceof NonReplayableBodyException);
+            Assert.assertTrue(error.getCause().getCause() instanceof ConnectException);
+        }
+    }
+
+    @Test
+    public void orderFlakyAPIRetryPolicyTest() {
+
+        OrderFlakyAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderFlakyAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                retryPolicy(RetryPolicy.get().
+                        maxAttempts(3).
+                        backoff(10, 50, TimeUnit.MILLISECONDS).
+                        retryNonIdempotent()).
+                build();
+
+        Assert.assertEquals("Todo Bien :)", orderAPIClient.process(2).getReturnCodeDesc());
+
+        try {
+            orderAPIClient.process(3);
+            Assert.fail("expected the retries to be exhausted");
+        } catch (ServiceUnavailableException error) {
+            Assert.assertEquals(503, error.status());
+        }
+    }
+
+    @Test
+    public void orderFlakyAPIMetricsTest() {
+
+        InMemoryMetricsRegistry metrics = InMemoryMetricsRegistry.get();
+        OrderFlakyAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderFlakyAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                retryPolicy(RetryPolicy.get().
+                        maxAttempts(3).
+                        backoff(10, 50, TimeUnit.MILLISECONDS).
+                        retryNonIdempotent()).
+                metrics(metrics).
+                build();
+
+        // resets the failure counter of the server
+        orderAPIClient.process(0);
+        Assert.assertEquals("Todo Bien :)", orderAPIClient.process(2).getReturnCodeDesc());
+
+        InMemoryMetricsRegistry.MethodMetrics process =
+                metrics.metrics("OrderFlakyAPIClient", "OrderFlakyAPIClient#process(Integer)");
+        Assert.assertEquals(4, process.requests());
+        Assert.assertEquals(2, process.responses(200));
+        Assert.assertEquals(2, process.responses(503));
+        Assert.assertEquals(2, process.events(MetricsRegistry.Event.RETRY));
+        Assert.assertEquals(0, process.inFlight());
+        Assert.assertTrue(process.bytesReceived() > 0);
+        Assert.assertEquals(4, process.latencies().getTotalCount());
+    }
+
+    @Test
+    public void orderAPITracingTest() {
+
+        List<Span> spans = new CopyOnWriteArrayList<>();
+        TraceContext parent = TraceContext.root(true);
+        OrderAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                tracing(Tracing.get().parent(() -> parent).exporter(spans::add)).
+                build();
+
+        Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).getReturnCodeDesc());
+
+        Assert.assertEquals(1, spans.size());
+        Span span = spans.get(0);
+        Assert.assertEquals(parent.traceId(), span.traceId());
+        Assert.assertNotEquals(parent.spanId(), span.spanId());
+        Assert.assertEquals(200, span.status());
+        Assert.assertNull(span.error());
+        Assert.assertTrue(span.phaseNanos(Span.Phase.SERVER_WAIT) > 0);
+        Assert.assertTrue(span.phases().containsKey(Span.Phase.RESPONSE_BODY));
+        Assert.assertTrue(span.durationNanos() >= span.phaseNanos(Span.Phase.SERVER_WAIT));
+    }
+
+    @Test
+    public void orderAPICallCredentialsTest() {
+
+        OrderAPIClient orderAPIClient = RestClient.
+                get().
+                auth(CallCredentials.get()).
+                apiClass(OrderAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+
+        try (CallCredentials.Scope scope = CallCredentials.use(JWTToken.build(jwtToken))) {
+            Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).getReturnCodeDesc());
+        }
+        try {
+            orderAPIClient.process(new Order());
+            Assert.fail("expected the call without credentials to be rejected");
+        } catch (ForbiddenException error) {
+            Assert.assertEquals(403, error.status());
+        }
+    }
+
+    @Test
+    public void orderAPICallCredentialsFallbackTest() {
+
+        OrderAPIClient fallback = order -> new OrderResponse().returnCodeDesc("fallback");
+        try {
+            RestClient.
+                    get().
+                    auth(CallCredentials.get()).
+                    apiClass(OrderAPIClient.class).
+                    url("http://localhost:".
+                            concat(randomPort.toString()).
+                            concat("/api/")).
+                    build(fallback);
+            Assert.fail("expected the THREAD mode fallback client to be rejected");
+        } catch (IllegalStateException expected) {
+            // the Hystrix threads would send the default authentication
+        }
+
+        OrderAPIClient orderAPIClient = RestClient.
+                get().
+                auth(CallCredentials.get()).
+                apiClass(OrderAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                executionMode(ExecutionMode.SEMAPHORE).
+                build(fallback);
+
+        try (CallCredentials.Scope scope = CallCredentials.use(JWTToken.build(jwtToken))) {
+            Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).getReturnCodeDesc());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void orderBatchAPICallCredentialsTest() {
+
+        RestClient.
+                get().
+                auth(CallCredentials.get()).
+                apiClass(OrderBatchAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build();
+    }
+
+    @Test
+    public void apiMetadataParsedOnceTest() {
+
+        Contract contract = ApiMetadata.contract(false, false);
+
+        Assert.assertSame(contract.parseAndValidatateMetadata(OrderAPIClient.class),
+                contract.parseAndValidatateMetadata(OrderAPIClient.class));
+        Assert.assertNotSame(contract.parseAndValidatateMetadata(OrderAPIClient.class),
+                ApiMetadata.contract(true, false).parseAndValidatateMetadata(OrderAPIClient.class));
+        Assert.assertNotSame(contract.parseAndValidatateMetadata(OrderAPIClient.class),
+                ApiMetadata.contract(false, true).parseAndValidatateMetadata(OrderAPIClient.class));
+        Assert.assertSame(ApiMetadata.of(OrderAPIClient.class), ApiMetadata.of(OrderAPIClient.class));
+    }
+
+    @Test
+    public void apiMetadataNotRewrittenByHystrixTest() {
+
+        Type returnType = ApiMetadata.contract(false, false)
+                .parseAndValidatateMetadata(OrderCommandAPIClient.class).get(0).returnType();
+
+        OrderCommandAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderCommandAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                build((OrderCommandAPIClient) order -> null);
+
+        Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).execute().getReturnCodeDesc());
+        Assert.assertEquals(returnType, ApiMetadata.contract(false, false)
+                .parseAndValidatateMetadata(OrderCommandAPIClient.class).get(0).returnType());
+        Assert.assertEquals(OrderResponse.class, ApiMetadata.contract(false, true)
+                .parseAndValidatateMetadata(OrderCommandAPIClient.class).get(0).returnType());
+    }
+
+    @Test
+    public void orderSlowAPISemaphoreModeTest() throws Exception {
+
+        Set<Thread> callThreads = ConcurrentHashMap.newKeySet();
+        CountDownLatch firstCallSent = new CountDownLatch(1);
+        OrderSlowAPIClient orderAPIClient = RestClient.
+                get().
+                auth(template -> {
+                    callThreads.add(Thread.currentThread());
+                    JWTToken.build(jwtToken).apply(template);
+                    firstCallSent.countDown();
+                }).
+                apiClass(OrderSlowAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                fallBackTimeout(5000).
+                executionMode(ExecutionMode.SEMAPHORE).
+                maxConcurrentRequests(1).
+                build((OrderSlowAPIClient) order -> new OrderResponse().returnCodeDesc("fallback"));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<OrderResponse> slowCall = executor.submit(() -> orderAPIClient.process(new Order()));
+            Assert.assertTrue(firstCallSent.await(5, TimeUnit.SECONDS));
+
+            // the only permit is held by the slow call, this call goes straight to the fallback
+            Assert.assertEquals("fallback", orderAPIClient.process(new Order()).getReturnCodeDesc());
+            Assert.assertEquals("Todo Bien :)", slowCall.get(10, TimeUnit.SECONDS).getReturnCodeDesc());
+        } finally {
+            executor.shutdownNow();
+        }
+        // the calls run on the caller threads, the test thread never reached the server
+        Assert.assertEquals(1, callThreads.size());
+        Assert.assertFalse(callThreads.contains(Thread.currentThread()));
+        Assert.assertFalse(callThreads.iterator().next().getName().startsWith("hystrix-"));
+    }
+
+    @Test
+    public void orderAPILoadBalancerTest() {
+
+        String liveUrl = "http://localhost:".concat(randomPort.toString()).concat("/api/");
+        LoadBalancer loadBalancer = LoadBalancer.get().
+                endpoints(Arrays.asList("http://localhost:1/api/", liveUrl)).
+                ejectAfter(1);
+
+        OrderAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderAPIClient.class).
+                loadBalancer(loadBalancer).
+                retryPolicy(RetryPolicy.get().backoff(1, 10, TimeUnit.MILLISECONDS)).
+                build();
+
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals("Todo Bien :)", orderAPIClient.process(new Order()).getReturnCodeDesc());
+        }
+        Assert.assertEquals(Collections.singletonList("http://localhost:".concat(randomPort.toString()).concat("/api")),
+                loadBalancer.availableEndpoints());
+    }
+
+    @Test
+    public void orderLimitedAPIConcurrencyLimitFallbackTest() {
+
+        FallbackFactory<OrderLimitedAPIClient> fallbackFactory = cause -> (order) -> new OrderResponse().
+                returnCodeDesc(cause instanceof ConcurrencyLimitExceededException ? "limited" : "timeout");
+
+        OrderLimitedAPIClient orderAPIClient = RestClient.
+                get().
+                withJWTToken(jwtToken).
+                apiClass(OrderLimitedAPIClient.class).
+                url("http://localhost:".
+                        concat(randomPort.toString()).
+                        concat("/api/")).
+                fallBackTimeout(500).
+                concurrencyLimiter(ConcurrencyLimiter.get().initialLimit(1).limits(1, 1)).
+                build(fallbackFactory);
+
+        // the first call times out but its request keeps the only permit until the slow response arrives
+        Assert.assertEquals("timeout", orderAPIClient.process(new Order()).getReturnCodeDesc());
+        Assert.assertEquals("limited", orderAPIClient.process(new Order()).getReturnCodeDesc());
+    }
 }
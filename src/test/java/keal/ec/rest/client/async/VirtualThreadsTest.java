@@ -0,0 +1,37 @@
+package keal.ec.rest.client.async;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ThreadFactory;
+
+public class VirtualThreadsTest {
+
+    @Test
+    public void availableOnlyOnJdk21Test() {
+
+        String version = System.getProperty("java.specification.version");
+        int feature = version.startsWith("1.") ? Integer.parseInt(version.substring(2)) : Integer.parseInt(version);
+
+        Assert.assertEquals(feature >= 21, VirtualThreads.isAvailable());
+    }
+
+    @Test
+    public void threadFactoryTest() {
+
+        if (!VirtualThreads.isAvailable()) {
+            try {
+                VirtualThreads.threadFactory("test");
+                Assert.fail("expected virtual threads to be unavailable");
+            } catch (IllegalStateException expected) {
+                Assert.assertTrue(expected.getMessage().contains("JDK 21+"));
+            }
+            return;
+        }
+        ThreadFactory threadFactory = VirtualThreads.threadFactory("test");
+        Thread thread = threadFactory.newThread(() -> {
+        });
+        Assert.assertEquals("test-0", thread.getName());
+    }
+}
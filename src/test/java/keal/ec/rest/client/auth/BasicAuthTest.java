@@ -0,0 +1,32 @@
+package keal.ec.rest.client.auth;
+
+
+import feign.RequestTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BasicAuthTest {
+
+    @Test
+    public void utf8HeaderTest() {
+
+        BasicAuth basicAuth = BasicAuth.get().username("usuario").password("contraseña");
+
+        Assert.assertEquals("Basic dXN1YXJpbzpjb250cmFzZcOxYQ==", authorization(basicAuth));
+    }
+
+    @Test
+    public void rotateTest() {
+
+        BasicAuth basicAuth = BasicAuth.get().username("user").password("old");
+        basicAuth.rotate("Aladdin", "open sesame");
+
+        Assert.assertEquals("Basic QWxhZGRpbjpvcGVuIHNlc2FtZQ==", authorization(basicAuth));
+    }
+
+    private static String authorization(BasicAuth basicAuth) {
+        RequestTemplate template = new RequestTemplate();
+        basicAuth.apply(template);
+        return template.headers().get("Authorization").iterator().next();
+    }
+}
@@ -0,0 +1,43 @@
+package keal.ec.rest.client.auth;
+
+
+import feign.RequestTemplate;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class JWTAuthTest {
+
+    @Test
+    public void jsonBodyTest() {
+
+        RequestTemplate template = new RequestTemplate();
+        JWTAuth.get().bodyUserApiKey("us\"er", "601f").apply(template);
+
+        Assert.assertEquals("{\"username\":\"us\\\"er\",\"api_key\":\"601f\"}",
+                new String(template.body(), StandardCharsets.UTF_8));
+        Assert.assertEquals("application/json", template.headers().get("Content-Type").iterator().next());
+    }
+
+    @Test
+    public void formBodyTest() {
+
+        RequestTemplate template = new RequestTemplate();
+        JWTAuth.get().
+                bodyUserApiKey("user name", "a&b").
+                credentialFormat(JWTAuth.CredentialFormat.FORM).
+                apply(template);
+
+        Assert.assertEquals("username=user+name&api_key=a%26b", new String(template.body(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void existingBodyIsKeptTest() {
+
+        RequestTemplate template = new RequestTemplate().body("{}");
+        JWTAuth.get().bodyUserApiKey("user", "key").apply(template);
+
+        Assert.assertEquals("{}", new String(template.body(), StandardCharsets.UTF_8));
+    }
+}
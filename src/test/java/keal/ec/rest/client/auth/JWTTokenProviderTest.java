@@ -0,0 +1,122 @@
+package keal.ec.rest.client.auth;
+
+
+import feign.RequestTemplate;
+import feign.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JWTTokenProviderTest {
+
+    @Test
+    public void refreshDelayTest() {
+
+        JWTTokenProvider provider = JWTTokenProvider.get(new StubJWTClient(0)).
+                refreshAhead(60, TimeUnit.SECONDS).
+                retry(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(240_000, provider.refreshDelay(300_000, 0));
+        Assert.assertEquals(45_000, provider.refreshDelay(90_000, 0));
+        Assert.assertEquals(5_000, provider.refreshDelay(3_000, 0));
+        Assert.assertEquals(5_000, provider.refreshDelay(-10_000, 0));
+    }
+
+    @Test
+    public void shortLivedTokenTest() throws Exception {
+
+        StubJWTClient jwtClient = new StubJWTClient(TimeUnit.SECONDS.toMillis(2));
+        try (JWTTokenProvider provider = JWTTokenProvider.get(jwtClient).retry(1, TimeUnit.SECONDS)) {
+            provider.apply(new RequestTemplate());
+            Thread.sleep(300);
+
+            Assert.assertEquals(1, jwtClient.logins.get());
+        }
+    }
+
+    @Test
+    public void expiredTokenTest() throws Exception {
+
+        StubJWTClient jwtClient = new StubJWTClient(-TimeUnit.SECONDS.toMillis(10));
+        try (JWTTokenProvider provider = JWTTokenProvider.get(jwtClient)) {
+            for (int i = 0; i < 3; i++) {
+                provider.apply(new RequestTemplate());
+            }
+            Thread.sleep(300);
+
+            Assert.assertEquals(1, jwtClient.logins.get());
+            Assert.assertTrue(provider.expiresAt() > System.currentTimeMillis());
+        }
+    }
+
+    @Test
+    public void singleFlightLoginTest() throws Exception {
+
+        CountDownLatch release = new CountDownLatch(1);
+        StubJWTClient jwtClient = new StubJWTClient(TimeUnit.MINUTES.toMillis(5)) {
+            @Override
+            public Optional<String> getToken() {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.getToken();
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try (JWTTokenProvider provider = JWTTokenProvider.get(jwtClient)) {
+            List<Future<String>> headers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                headers.add(executor.submit(() -> {
+                    RequestTemplate template = new RequestTemplate();
+                    provider.apply(template);
+                    return template.headers().get("Authorization").iterator().next();
+                }));
+            }
+            Thread.sleep(100);
+            release.countDown();
+            for (Future<String> header : headers) {
+                Assert.assertEquals(headers.get(0).get(), header.get());
+            }
+
+            Assert.assertEquals(1, jwtClient.logins.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static class StubJWTClient implements JWTClient {
+
+        private final long ttlMillis;
+        private final AtomicInteger logins = new AtomicInteger();
+
+        private StubJWTClient(long ttlMillis) {
+            this.ttlMillis = ttlMillis;
+        }
+
+        @Override
+        public Response auth() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<String> getToken() {
+            long exp = TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis() + ttlMillis);
+            String claims = "{\"exp\":" + exp + ",\"login\":" + logins.incrementAndGet() + "}";
+            return Optional.of("Bearer e30." + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".c2ln");
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package keal.ec.rest.client.balance;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class LoadBalancerTest {
+
+    @Test
+    public void powerOfTwoChoicesTest() {
+
+        LoadBalancer balancer = LoadBalancer.get().endpoints(Arrays.asList("http://a/", "http://b"));
+        Endpoint slow = endpoint(balancer, "http://a");
+        slow.start();
+        balancer.success(slow, TimeUnit.MILLISECONDS.toNanos(50));
+        slow.start();
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals("http://b", balancer.choose().url());
+        }
+    }
+
+    @Test
+    public void ejectionTest() throws Exception {
+
+        LoadBalancer balancer = LoadBalancer.get().
+                endpoints(Arrays.asList("http://a", "http://b")).
+                ejectAfter(2).
+                ejectionBackoff(50, 50, TimeUnit.MILLISECONDS);
+        Endpoint failing = endpoint(balancer, "http://a");
+
+        for (int i = 0; i < 2; i++) {
+            failing.start();
+            balancer.failure(failing, 0);
+        }
+        Assert.assertEquals(Collections.singletonList("http://b"), balancer.availableEndpoints());
+
+        Thread.sleep(60);
+        Assert.assertEquals(Arrays.asList("http://a", "http://b"), balancer.availableEndpoints());
+    }
+
+    @Test
+    public void supplierRefreshTest() throws Exception {
+
+        AtomicReference<List<String>> urls = new AtomicReference<>(Collections.singletonList("http://a"));
+        LoadBalancer balancer = LoadBalancer.get().endpoints(urls::get).refresh(10, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("http://a", balancer.choose().url());
+
+        urls.set(Collections.singletonList("http://c"));
+        Thread.sleep(20);
+        Assert.assertEquals("http://c", balancer.choose().url());
+    }
+
+    @Test
+    public void supplierFailureTest() throws Exception {
+
+        AtomicInteger reads = new AtomicInteger();
+        LoadBalancer balancer = LoadBalancer.get().endpoints(() -> {
+            if (reads.incrementAndGet() > 1) {
+                throw new IllegalStateException("registry down");
+            }
+            return Collections.singletonList("http://a");
+        }).refresh(50, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("http://a", balancer.choose().url());
+
+        Thread.sleep(60);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals("http://a", balancer.choose().url());
+        }
+        Assert.assertEquals(2, reads.get());
+    }
+
+    private static Endpoint endpoint(LoadBalancer balancer, String url) {
+        for (int i = 0; i < 100; i++) {
+            Endpoint endpoint = balancer.choose();
+            if (endpoint.url().equals(url)) {
+                return endpoint;
+            }
+        }
+        throw new AssertionError("endpoint never chosen " + url);
+    }
+}
@@ -0,0 +1,103 @@
+package keal.ec.rest.client.cache;
+
+
+import feign.Request;
+import feign.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void lruEvictionTest() {
+
+        ResponseCache cache = ResponseCache.get().maxEntries(2);
+        cache.store(key("/a"), entry(10));
+        cache.store(key("/b"), entry(10));
+        Assert.assertNotNull(cache.lookup(key("/a")));
+        cache.store(key("/c"), entry(10));
+
+        Assert.assertNotNull(cache.lookup(key("/a")));
+        Assert.assertNull(cache.lookup(key("/b")));
+        Assert.assertEquals(1, cache.evictions());
+    }
+
+    @Test
+    public void lfuEvictionTest() {
+
+        ResponseCache cache = ResponseCache.get().maxEntries(2).eviction(ResponseCache.Eviction.LFU);
+        cache.store(key("/a"), entry(10));
+        cache.store(key("/b"), entry(10));
+        cache.lookup(key("/a"));
+        cache.lookup(key("/a"));
+        cache.lookup(key("/b"));
+        cache.store(key("/c"), entry(10));
+
+        Assert.assertNotNull(cache.lookup(key("/a")));
+        Assert.assertNull(cache.lookup(key("/b")));
+    }
+
+    @Test
+    public void maxBytesTest() {
+
+        ResponseCache cache = ResponseCache.get().maxBytes(25);
+        cache.store(key("/a"), entry(10));
+        cache.store(key("/b"), entry(10));
+        cache.store(key("/c"), entry(10));
+        cache.store(key("/d"), entry(30));
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(20, cache.bytes());
+        Assert.assertNull(cache.lookup(key("/d")));
+    }
+
+    @Test
+    public void authorizationKeyTest() {
+
+        ResponseCache cache = ResponseCache.get();
+        cache.store(new CacheKey(request("Authorization", "Bearer a")), entry(10));
+
+        Assert.assertNotNull(cache.lookup(new CacheKey(request("Authorization", "Bearer a"))));
+        Assert.assertNull(cache.lookup(new CacheKey(request("Authorization", "Bearer b"))));
+        Assert.assertNull(cache.lookup(key("/a")));
+    }
+
+    @Test
+    public void varyTest() {
+
+        Response response = Response.builder()
+                .status(200)
+                .headers(Collections.singletonMap("Vary", Collections.singletonList("Accept-Language, Accept")))
+                .build();
+        Request english = request("Accept-Language", "en");
+        CacheEntry entry = new CacheEntry(response, new byte[10], Long.MAX_VALUE,
+                CacheEntry.varying(response, english));
+
+        Assert.assertTrue(entry.matches(request("accept-language", "en")));
+        Assert.assertFalse(entry.matches(request("Accept-Language", "es")));
+        Assert.assertNull(CacheEntry.varying(response.toBuilder()
+                .headers(Collections.singletonMap("Vary", Collections.singletonList("*")))
+                .build(), english));
+    }
+
+    private static Request request(String header, String value) {
+        return Request.create("GET", "http://localhost/a",
+                Collections.singletonMap(header, Collections.singletonList(value)), null, StandardCharsets.UTF_8);
+    }
+
+    private static CacheKey key(String path) {
+        return new CacheKey(Request.create("GET", "http://localhost" + path,
+                Collections.emptyMap(), null, StandardCharsets.UTF_8));
+    }
+
+    private static CacheEntry entry(int size) {
+        Response response = Response.builder()
+                .status(200)
+                .headers(Collections.emptyMap())
+                .build();
+        return new CacheEntry(response, new byte[size], Long.MAX_VALUE);
+    }
+}
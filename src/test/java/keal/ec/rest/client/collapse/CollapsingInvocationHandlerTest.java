@@ -0,0 +1,84 @@
+package keal.ec.rest.client.collapse;
+
+
+import com.netflix.hystrix.exception.HystrixTimeoutException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class CollapsingInvocationHandlerTest {
+
+    public interface EchoAPI {
+
+        @Collapse(batchMethod = "echoAll", window = 10)
+        CompletableFuture<String> echo(String value);
+
+        List<String> echoAll(List<String> values);
+    }
+
+    public interface SlowEchoAPI {
+
+        @Collapse(batchMethod = "echoAll", window = 10)
+        CompletableFuture<String> echo(String value);
+
+        List<String> echoAll(List<String> values);
+    }
+
+    @Test
+    public void batchThreadTest() throws Exception {
+
+        EchoAPI client = CollapsingInvocationHandler.wrap(EchoAPI.class, new EchoAPI() {
+            @Override
+            public CompletableFuture<String> echo(String value) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<String> echoAll(List<String> values) {
+                List<String> responses = new ArrayList<>();
+                for (String value : values) {
+                    responses.add(value + "@" + Thread.currentThread().getName());
+                }
+                return responses;
+            }
+        }, 1000);
+
+        String response = client.echo("a").get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(response, response.startsWith("a@hystrix-"));
+        Assert.assertFalse(response, response.contains("HystrixTimer"));
+    }
+
+    @Test
+    public void batchTimeoutTest() throws Exception {
+
+        SlowEchoAPI client = CollapsingInvocationHandler.wrap(SlowEchoAPI.class, new SlowEchoAPI() {
+            @Override
+            public CompletableFuture<String> echo(String value) {
+                throw new UnsupportedOperationException();
+            }
+
+            @Override
+            public List<String> echoAll(List<String> values) {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return values;
+            }
+        }, 100);
+
+        long start = System.nanoTime();
+        try {
+            client.echo("a").join();
+            Assert.fail("expected the batch to time out");
+        } catch (RuntimeException e) {
+            Assert.assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof HystrixTimeoutException);
+        }
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2000);
+    }
+}
@@ -0,0 +1,87 @@
+package keal.ec.rest.client.error;
+
+
+import feign.Request;
+import feign.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+public class RestClientErrorDecoderTest {
+
+    @Test
+    public void boundedBodyTest() {
+
+        RestClientException error = (RestClientException) new RestClientErrorDecoder(null, 4, false).
+                decode("OrderAPIClient#process(Order)", response(500, "<html>Internal error</html>", null));
+
+        Assert.assertEquals(500, error.status());
+        Assert.assertEquals("<htm", error.bodyAsString());
+        Assert.assertTrue(error.isTruncated());
+        Assert.assertEquals("status 500 reading OrderAPIClient#process(Order); content:\n<htm...", error.getMessage());
+        Assert.assertEquals(0, error.getStackTrace().length);
+        Assert.assertTrue(error instanceof ServerErrorException);
+        Assert.assertFalse(error.isRetryable());
+        Assert.assertFalse(error.error().isPresent());
+    }
+
+    @Test
+    public void unknownLengthBodyTest() {
+
+        RestClientException error = (RestClientException) new RestClientErrorDecoder().
+                decode("OrderAPIClient#process(Order)", response(403, "{\"status\":403}", null));
+
+        Assert.assertEquals("{\"status\":403}", error.bodyAsString());
+        Assert.assertFalse(error.isTruncated());
+        Assert.assertTrue(error.getStackTrace().length > 0);
+        Assert.assertTrue(error instanceof ForbiddenException);
+        Assert.assertEquals(new Integer(403), error.error().get().getStatus());
+    }
+
+    @Test
+    public void retryableStatusTest() {
+
+        RestClientException error = (RestClientException) new RestClientErrorDecoder().
+                decode("OrderAPIClient#process(Order)", response(503, "", null));
+
+        Assert.assertTrue(error instanceof ServiceUnavailableException);
+        Assert.assertTrue(error.isRetryable());
+    }
+
+    @Test
+    public void suppressionAndSerializationTest() throws Exception {
+
+        RestClientException error = (RestClientException) new RestClientErrorDecoder().
+                decode("OrderAPIClient#process(Order)", response(403, "{\"status\":403}", null));
+        error.addSuppressed(new IllegalStateException("cleanup failed"));
+
+        Assert.assertEquals(1, error.getSuppressed().length);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(error);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            RestClientException copy = (RestClientException) in.readObject();
+
+            Assert.assertEquals(403, copy.status());
+            Assert.assertEquals("{\"status\":403}", copy.bodyAsString());
+            Assert.assertEquals(error.getMessage(), copy.getMessage());
+        }
+    }
+
+    private static Response response(int status, String body, Integer length) {
+        return Response.builder().
+                status(status).
+                headers(Collections.emptyMap()).
+                body(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), length).
+                request(Request.create("POST", "http://localhost/api/order/", Collections.emptyMap(), null, null)).
+                build();
+    }
+}
@@ -0,0 +1,108 @@
+package keal.ec.rest.client.hedge;
+
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import keal.ec.rest.client.retry.RetryBudget;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class HedgingClientTest {
+
+    @Test
+    public void slowCallIsHedgedTest() throws Exception {
+
+        AtomicInteger calls = new AtomicInteger();
+        Client slowFirst = (request, options) -> {
+            if (calls.incrementAndGet() == 1) {
+                sleep(2000);
+                return response(500);
+            }
+            return response(200);
+        };
+        HedgingClient client = new HedgingClient(slowFirst,
+                Collections.singletonMap("OrderQueryAPIClient#find(Integer)", hedged(20)),
+                RetryBudget.get().reserve(1));
+
+        long start = System.currentTimeMillis();
+        Response response = client.execute(request("OrderQueryAPIClient#find(Integer)"), new Request.Options());
+
+        Assert.assertEquals(200, response.status());
+        Assert.assertEquals(2, calls.get());
+        Assert.assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    @Test
+    public void budgetCapsHedgesTest() throws Exception {
+
+        AtomicInteger calls = new AtomicInteger();
+        Client slow = (request, options) -> {
+            calls.incrementAndGet();
+            sleep(50);
+            return response(200);
+        };
+        HedgingClient client = new HedgingClient(slow,
+                Collections.singletonMap("OrderQueryAPIClient#find(Integer)", hedged(1)),
+                RetryBudget.get().ratio(0).reserve(0));
+
+        Assert.assertEquals(200, client.execute(request("OrderQueryAPIClient#find(Integer)"),
+                new Request.Options()).status());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    @Test
+    public void notHedgedMethodTest() throws Exception {
+
+        AtomicInteger calls = new AtomicInteger();
+        Client client = new HedgingClient((request, options) -> {
+            calls.incrementAndGet();
+            return response(200);
+        }, Collections.emptyMap(), null);
+
+        client.execute(request("OrderAPIClient#process(Order)"), new Request.Options());
+        Assert.assertEquals(1, calls.get());
+    }
+
+    private static Hedged hedged(long delay) {
+        return new Hedged() {
+            @Override
+            public long delay() {
+                return delay;
+            }
+
+            @Override
+            public double percentile() {
+                return 95;
+            }
+
+            @Override
+            public Class<Hedged> annotationType() {
+                return Hedged.class;
+            }
+        };
+    }
+
+    private static Request request(String methodKey) {
+        Map<String, Collection<String>> headers =
+                Collections.singletonMap("X-RestClient-Method", Collections.singletonList(methodKey));
+        return Request.create("GET", "http://localhost/api/order/7", headers, null, null);
+    }
+
+    private static Response response(int status) {
+        return Response.builder().status(status).headers(Collections.emptyMap()).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package keal.ec.rest.client.hedge;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyWindowTest {
+
+    @Test
+    public void percentileTest() {
+
+        LatencyWindow window = new LatencyWindow(95);
+        Assert.assertEquals(Long.MAX_VALUE, window.percentileMillis());
+
+        for (int i = 1; i <= 128; i++) {
+            window.record(i);
+        }
+        Assert.assertEquals(122, window.percentileMillis());
+    }
+}
@@ -0,0 +1,33 @@
+package keal.ec.rest.client.hystrix;
+
+
+import com.netflix.hystrix.HystrixCommandKey;
+import com.netflix.hystrix.HystrixEventType;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import keal.ec.rest.client.metrics.InMemoryMetricsRegistry;
+import keal.ec.rest.client.metrics.MetricsRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class MetricsEventNotifierTest {
+
+    @Test
+    public void sharedCommandReportsToEveryRegistryTest() {
+
+        InMemoryMetricsRegistry first = InMemoryMetricsRegistry.get();
+        InMemoryMetricsRegistry second = InMemoryMetricsRegistry.get();
+        String configKey = "SharedAPIClient#find(Integer)";
+        if (!MetricsEventNotifier.use(configKey + "[timeout=1]", configKey, first, "SharedAPIClient")) {
+            // another event notifier was registered first in this JVM
+            return;
+        }
+        MetricsEventNotifier.use(configKey + "[timeout=1]", configKey, second, "SharedAPIClient");
+        MetricsEventNotifier.use(configKey + "[timeout=1]", configKey, second, "SharedAPIClient");
+
+        HystrixPlugins.getInstance().getEventNotifier().markEvent(HystrixEventType.TIMEOUT,
+                HystrixCommandKey.Factory.asKey(configKey + "[timeout=1]"));
+
+        Assert.assertEquals(1, first.metrics("SharedAPIClient", configKey).events(MetricsRegistry.Event.TIMEOUT));
+        Assert.assertEquals(1, second.metrics("SharedAPIClient", configKey).events(MetricsRegistry.Event.TIMEOUT));
+    }
+}
@@ -0,0 +1,98 @@
+package keal.ec.rest.client.hystrix;
+
+
+import com.netflix.hystrix.HystrixCommand;
+import com.netflix.hystrix.HystrixCommandProperties.ExecutionIsolationStrategy;
+import feign.RequestLine;
+import feign.Target;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+
+public class RestClientSetterFactoryTest {
+
+    interface FastAndSlowAPIClient {
+
+        @RequestLine("GET /fast/")
+        String fast();
+
+        @RequestLine("GET /slow/")
+        String slow();
+    }
+
+    @Test
+    public void methodSettingsOverrideClientSettingsTest() throws NoSuchMethodException {
+
+        RestClientSetterFactory setterFactory = new RestClientSetterFactory(
+                CommandSettings.get().timeout(700),
+                Collections.singletonMap("slow", CommandSettings.get().timeout(4000).threadPool("slow")));
+
+        Target<FastAndSlowAPIClient> target =
+                new Target.HardCodedTarget<>(FastAndSlowAPIClient.class, "http://localhost");
+
+        HystrixCommand<String> fast = command(setterFactory.create(target,
+                FastAndSlowAPIClient.class.getMethod("fast")));
+        HystrixCommand<String> slow = command(setterFactory.create(target,
+                FastAndSlowAPIClient.class.getMethod("slow")));
+
+        Assert.assertEquals(Integer.valueOf(700), fast.getProperties().executionTimeoutInMilliseconds().get());
+        Assert.assertEquals(Integer.valueOf(4000), slow.getProperties().executionTimeoutInMilliseconds().get());
+        Assert.assertEquals(FastAndSlowAPIClient.class.getName(), fast.getThreadPoolKey().name());
+        Assert.assertEquals("slow", slow.getThreadPoolKey().name());
+        Assert.assertEquals("FastAndSlowAPIClient#fast()", fast.getCommandKey().name());
+    }
+
+    interface SharedAPIClient {
+
+        @RequestLine("GET /shared/")
+        String shared();
+    }
+
+    @Test
+    public void clientsWithOtherSettingsGetOwnKeysTest() throws NoSuchMethodException {
+
+        Target<SharedAPIClient> target = new Target.HardCodedTarget<>(SharedAPIClient.class, "http://localhost");
+        Method shared = SharedAPIClient.class.getMethod("shared");
+
+        HystrixCommand<String> first = command(new RestClientSetterFactory(
+                CommandSettings.get().timeout(700), null).create(target, shared));
+        HystrixCommand<String> second = command(new RestClientSetterFactory(
+                CommandSettings.get().timeout(1500).threadPoolSize(3), null).create(target, shared));
+        HystrixCommand<String> third = command(new RestClientSetterFactory(
+                CommandSettings.get().timeout(700), null).create(target, shared));
+
+        Assert.assertEquals(Integer.valueOf(700), first.getProperties().executionTimeoutInMilliseconds().get());
+        Assert.assertEquals(Integer.valueOf(1500), second.getProperties().executionTimeoutInMilliseconds().get());
+        Assert.assertEquals("SharedAPIClient#shared()", first.getCommandKey().name());
+        Assert.assertNotEquals(first.getCommandKey().name(), second.getCommandKey().name());
+        Assert.assertNotEquals(first.getThreadPoolKey().name(), second.getThreadPoolKey().name());
+        Assert.assertEquals(first.getCommandKey().name(), third.getCommandKey().name());
+        Assert.assertEquals(first.getThreadPoolKey().name(), third.getThreadPoolKey().name());
+    }
+
+    @Test
+    public void semaphoreIsolationTest() throws NoSuchMethodException {
+
+        RestClientSetterFactory setterFactory = new RestClientSetterFactory(
+                CommandSettings.get().semaphoreIsolation(25), null);
+
+        Target<Runnable> target = new Target.HardCodedTarget<>(Runnable.class, "http://localhost");
+        HystrixCommand<String> command = command(setterFactory.create(target, Runnable.class.getMethod("run")));
+
+        Assert.assertEquals(ExecutionIsolationStrategy.SEMAPHORE,
+                command.getProperties().executionIsolationStrategy().get());
+        Assert.assertEquals(Integer.valueOf(25),
+                command.getProperties().executionIsolationSemaphoreMaxConcurrentRequests().get());
+    }
+
+    private static HystrixCommand<String> command(HystrixCommand.Setter setter) {
+        return new HystrixCommand<String>(setter) {
+            @Override
+            protected String run() {
+                return "";
+            }
+        };
+    }
+}
@@ -0,0 +1,45 @@
+package keal.ec.rest.client.hystrix;
+
+
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import keal.ec.rest.client.async.VirtualThreads;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VirtualThreadConcurrencyStrategyTest {
+
+    @After
+    public void resetPlugins() {
+        // the strategy registered here would otherwise stay in place for the next test classes
+        HystrixPlugins.reset();
+    }
+
+    @Test
+    public void platformThreadsBeforeJdk21Test() {
+
+        if (VirtualThreads.isAvailable()) {
+            return;
+        }
+        Assert.assertFalse(VirtualThreadConcurrencyStrategy.use("VirtualThreadConcurrencyStrategyTest"));
+        Assert.assertFalse(VirtualThreadConcurrencyStrategy.use("VirtualThreadConcurrencyStrategyTest"));
+    }
+
+    @Test
+    public void registrationKeepsInstalledStrategyTest() {
+
+        try {
+            // behaves as the default strategy
+            HystrixPlugins.getInstance().registerConcurrencyStrategy(new HystrixConcurrencyStrategy() {
+            });
+        } catch (IllegalStateException alreadyRegistered) { // NOPMD
+        }
+        HystrixConcurrencyStrategy installed = HystrixPlugins.getInstance().getConcurrencyStrategy();
+        boolean ours = installed instanceof VirtualThreadConcurrencyStrategy;
+
+        Assert.assertEquals(ours, VirtualThreadConcurrencyStrategy.register());
+        Assert.assertEquals(ours, VirtualThreadConcurrencyStrategy.register());
+        Assert.assertSame(installed, HystrixPlugins.getInstance().getConcurrencyStrategy());
+    }
+}
@@ -0,0 +1,62 @@
+package keal.ec.rest.client.limit;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ConcurrencyLimiterTest {
+
+    @Test
+    public void rejectBeyondLimitTest() {
+
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.get().initialLimit(2);
+
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertTrue(limiter.tryAcquire());
+        Assert.assertFalse(limiter.tryAcquire());
+        Assert.assertEquals(2, limiter.inFlight());
+    }
+
+    @Test
+    public void initialLimitTest() {
+
+        Assert.assertEquals(5, ConcurrencyLimiter.get().limits(1, 5).initialLimit(50).limit());
+        Assert.assertEquals(3, ConcurrencyLimiter.get().limits(3, 5).initialLimit(1).limit());
+        try {
+            ConcurrencyLimiter.get().initialLimit(0);
+            Assert.fail("expected a limit of 0 to be rejected");
+        } catch (IllegalArgumentException expected) {
+            // a limiter with a limit of 0 rejects every call
+        }
+    }
+
+    @Test
+    public void additiveIncreaseTest() {
+
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.get().initialLimit(4);
+
+        for (int i = 0; i < 20; i++) {
+            Assert.assertTrue(limiter.tryAcquire());
+            limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        }
+        Assert.assertTrue(limiter.limit() > 4);
+    }
+
+    @Test
+    public void multiplicativeDecreaseTest() {
+
+        ConcurrencyLimiter limiter = ConcurrencyLimiter.get().initialLimit(10).backoffRatio(0.5);
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(100), false);
+        Assert.assertEquals(5, limiter.limit());
+
+        limiter.tryAcquire();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        Assert.assertEquals(2, limiter.limit());
+    }
+}
@@ -0,0 +1,88 @@
+package keal.ec.rest.client.log;
+
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class SamplingLoggerTest {
+
+    private static final String CONFIG_KEY = "OrderAPIClient#process(Order)";
+
+    @Test
+    public void sampleRateTest() throws IOException {
+
+        RecordingLogger logger = new RecordingLogger(3);
+
+        for (int i = 0; i < 9; i++) {
+            call(logger, 200);
+        }
+
+        Assert.assertEquals(3, logger.count("---> END HTTP"));
+        Assert.assertEquals(3, logger.count("<--- END HTTP"));
+        Assert.assertEquals(9, logger.count("---> POST"));
+        Assert.assertEquals(9, logger.count("<--- HTTP/1.1 200"));
+    }
+
+    @Test
+    public void failedResponseTest() throws IOException {
+
+        RecordingLogger logger = new RecordingLogger(2);
+
+        // the sampled call fails, the next one is not sampled and must not inherit the flag
+        call(logger, 500);
+        logger.lines.clear();
+        logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.FULL, response(200), 1);
+        Assert.assertEquals(0, logger.count("<--- END HTTP"));
+
+        // the failed call outside of the sample is logged at the configured level
+        logger.lines.clear();
+        call(logger, 503);
+        Assert.assertEquals(0, logger.count("---> END HTTP"));
+        Assert.assertEquals(1, logger.count("<--- END HTTP"));
+        logger.lines.clear();
+        logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.FULL, response(200), 1);
+        Assert.assertEquals(0, logger.count("<--- END HTTP"));
+    }
+
+    private static void call(RecordingLogger logger, int status) throws IOException {
+        logger.logRequest(CONFIG_KEY, Logger.Level.FULL, Request.create("POST", "http://localhost/order/",
+                Collections.emptyMap(), "{}".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8));
+        logger.logAndRebufferResponse(CONFIG_KEY, Logger.Level.FULL, response(status), 1);
+    }
+
+    private static Response response(int status) {
+        return Response.builder()
+                .status(status)
+                .reason("reason")
+                .headers(Collections.emptyMap())
+                .body("{}", StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static final class RecordingLogger extends SamplingLogger {
+
+        private final List<String> lines = new ArrayList<>();
+
+        private RecordingLogger(int sampleRate) {
+            super(SamplingLoggerTest.class, sampleRate);
+        }
+
+        @Override
+        protected void log(String configKey, String format, Object... args) {
+            lines.add(String.format(format, args));
+        }
+
+        private long count(String prefix) {
+            return lines.stream().filter(line -> line.startsWith(prefix)).count();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package keal.ec.rest.client.metrics;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+public class InMemoryMetricsRegistryTest {
+
+    private static final String CLIENT = "OrderAPIClient";
+    private static final String METHOD = "OrderAPIClient#process(Order)";
+
+    @Test
+    public void requestsByMethodTest() {
+
+        InMemoryMetricsRegistry registry = InMemoryMetricsRegistry.get();
+
+        registry.requestStarted(CLIENT, METHOD);
+        registry.requestStarted(CLIENT, METHOD);
+        Assert.assertEquals(2, registry.metrics(CLIENT, METHOD).inFlight());
+
+        registry.requestCompleted(CLIENT, METHOD, 200, TimeUnit.MILLISECONDS.toNanos(5));
+        registry.requestFailed(CLIENT, METHOD, new IOException("reset"), TimeUnit.MILLISECONDS.toNanos(50));
+        registry.bytesSent(CLIENT, METHOD, 10);
+        registry.bytesReceived(CLIENT, METHOD, 20);
+        registry.event(CLIENT, METHOD, MetricsRegistry.Event.RETRY);
+
+        InMemoryMetricsRegistry.MethodMetrics metrics = registry.metrics(CLIENT, METHOD);
+        Assert.assertEquals(0, metrics.inFlight());
+        Assert.assertEquals(2, metrics.requests());
+        Assert.assertEquals(1, metrics.failures());
+        Assert.assertEquals(1, metrics.responses(200));
+        Assert.assertEquals(10, metrics.bytesSent());
+        Assert.assertEquals(20, metrics.bytesReceived());
+        Assert.assertEquals(1, metrics.events(MetricsRegistry.Event.RETRY));
+        Assert.assertEquals(0, metrics.events(MetricsRegistry.Event.FALLBACK));
+        Assert.assertEquals(1, registry.metrics(CLIENT).size());
+    }
+
+    @Test
+    public void latencyHistogramTest() {
+
+        InMemoryMetricsRegistry registry = InMemoryMetricsRegistry.get();
+
+        for (int i = 1; i <= 100; i++) {
+            registry.requestStarted(CLIENT, METHOD);
+            registry.requestCompleted(CLIENT, METHOD, 200, TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        Assert.assertEquals(100, registry.metrics(CLIENT, METHOD).latencies().getTotalCount());
+
+        registry.requestStarted(CLIENT, METHOD);
+        registry.requestCompleted(CLIENT, METHOD, 200, TimeUnit.MILLISECONDS.toNanos(1000));
+
+        long p99 = registry.metrics(CLIENT, METHOD).latencies().getValueAtPercentile(99);
+        Assert.assertEquals(101, registry.metrics(CLIENT, METHOD).latencies().getTotalCount());
+        Assert.assertTrue(p99 >= TimeUnit.MILLISECONDS.toMicros(99) && p99 < TimeUnit.MILLISECONDS.toMicros(101));
+    }
+}
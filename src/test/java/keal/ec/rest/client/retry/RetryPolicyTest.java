@@ -0,0 +1,101 @@
+package keal.ec.rest.client.retry;
+
+
+import feign.Request;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import feign.codec.ErrorDecoder;
+import keal.ec.rest.client.error.RestClientErrorDecoder;
+import keal.ec.rest.client.error.ServiceUnavailableException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+public class RetryPolicyTest {
+
+    @Test
+    public void budgetTest() {
+
+        RetryBudget budget = RetryBudget.get().ratio(0.5).reserve(1).maxRetries(2);
+
+        Assert.assertTrue(budget.tryWithdraw());
+        Assert.assertFalse(budget.tryWithdraw());
+        budget.deposit();
+        budget.deposit();
+        Assert.assertEquals(1, budget.available());
+        for (int i = 0; i < 10; i++) {
+            budget.deposit();
+        }
+        Assert.assertEquals(2, budget.available());
+    }
+
+    @Test
+    public void exceptionRulesTest() {
+
+        RetryPolicy policy = RetryPolicy.get().neverRetryOn(SocketTimeoutException.class);
+
+        Assert.assertTrue(policy.retries(new RuntimeException(new ConnectException())));
+        Assert.assertFalse(policy.retries(new RuntimeException(new SocketTimeoutException())));
+        Assert.assertFalse(policy.retries(new IllegalStateException()));
+    }
+
+    @Test
+    public void idempotentMethodsTest() {
+
+        ErrorDecoder decoder = RetryPolicy.get().errorDecoder(new RestClientErrorDecoder());
+        ErrorDecoder nonIdempotent = RetryPolicy.get().retryNonIdempotent().errorDecoder(new RestClientErrorDecoder());
+
+        Assert.assertTrue(decoder.decode("OrderAPIClient#find(Integer)", response("GET", 503))
+                instanceof RetryableException);
+        Assert.assertTrue(decoder.decode("OrderAPIClient#process(Order)", response("POST", 503))
+                instanceof ServiceUnavailableException);
+        Assert.assertTrue(nonIdempotent.decode("OrderAPIClient#process(Order)", response("POST", 503))
+                instanceof RetryableException);
+    }
+
+    @Test
+    public void backoffTest() {
+
+        RetryPolicy policy = RetryPolicy.get().backoff(10, 40, TimeUnit.MILLISECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            Assert.assertTrue(policy.backoffMillis(1) < 10);
+            Assert.assertTrue(policy.backoffMillis(10) < 40);
+        }
+    }
+
+    @Test
+    public void exhaustedAttemptsTest() {
+
+        RetryBudget budget = RetryBudget.get().reserve(10);
+        Retryer retryer = RetryPolicy.get().
+                maxAttempts(2).
+                backoff(1, 1, TimeUnit.MILLISECONDS).
+                budget(budget).
+                retryer().
+                clone();
+        RetryableException failure = new RetryableException("connect", new ConnectException(), null);
+
+        retryer.continueOrPropagate(failure);
+        try {
+            retryer.continueOrPropagate(failure);
+            Assert.fail("expected the attempts to be exhausted");
+        } catch (RetryableException e) {
+            Assert.assertSame(failure, e);
+        }
+        Assert.assertEquals(9, budget.available());
+    }
+
+    private static Response response(String method, int status) {
+        return Response.builder().
+                status(status).
+                headers(Collections.emptyMap()).
+                request(Request.create(method, "http://localhost/api/order/", Collections.emptyMap(), null, null)).
+                build();
+    }
+}
@@ -0,0 +1,44 @@
+package keal.ec.rest.client.trace;
+
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TraceContextTest {
+
+    @Test
+    public void parseTraceparentTest() {
+
+        TraceContext context = TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01");
+
+        Assert.assertNotNull(context);
+        Assert.assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.traceId());
+        Assert.assertEquals("00f067aa0ba902b7", context.spanId());
+        Assert.assertTrue(context.isSampled());
+        Assert.assertEquals("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01", context.traceparent());
+    }
+
+    @Test
+    public void rejectMalformedTraceparentTest() {
+
+        Assert.assertNull(TraceContext.parse(null));
+        Assert.assertNull(TraceContext.parse("00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7"));
+        Assert.assertNull(TraceContext.parse("00-00000000000000000000000000000000-00f067aa0ba902b7-01"));
+        Assert.assertNull(TraceContext.parse("00-4BF92F3577B34DA6A3CE929D0E0E4736-00f067aa0ba902b7-01"));
+        Assert.assertNull(TraceContext.parse("ff-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01"));
+    }
+
+    @Test
+    public void childKeepsTraceTest() {
+
+        TraceContext root = TraceContext.root(false);
+        TraceContext child = root.child();
+
+        Assert.assertEquals(32, root.traceId().length());
+        Assert.assertEquals(16, root.spanId().length());
+        Assert.assertEquals(root.traceId(), child.traceId());
+        Assert.assertNotEquals(root.spanId(), child.spanId());
+        Assert.assertFalse(child.isSampled());
+        Assert.assertEquals(child, TraceContext.parse(child.traceparent()));
+    }
+}
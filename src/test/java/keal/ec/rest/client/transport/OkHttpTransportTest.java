@@ -0,0 +1,171 @@
+package keal.ec.rest.client.transport;
+
+
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Util;
+import okhttp3.OkHttpClient;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+public class OkHttpTransportTest {
+
+    private static final int UPLOAD_BYTES = 8 * 1024 * 1024;
+
+    @Test
+    public void streamingBodyNotReplayedOnStaleConnectionTest() throws Exception {
+
+        try (ServerSocket server = new ServerSocket(0)) {
+            Thread serverThread = new Thread(() -> serve(server), "stale-connection-server");
+            serverThread.setDaemon(true);
+            serverThread.start();
+
+            OkHttpTransport transport = new OkHttpTransport(new OkHttpClient());
+            String url = "http://localhost:" + server.getLocalPort() + "/upload";
+            Request.Options options = new Request.Options();
+
+            // pools the connection the server kills during the next request
+            try (Response response = transport.execute(Request.create("POST", url, Collections.emptyMap(),
+                    "ping".getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8), options)) {
+                Assert.assertEquals("4", Util.toString(response.body().asReader()));
+            }
+
+            RequestTemplate template = new RequestTemplate();
+            InputStream upload = new ByteArrayInputStream(new byte[UPLOAD_BYTES]);
+            StreamingBodies.attach(template, out -> {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = upload.read(buffer)) >= 0) {
+                    out.write(buffer, 0, read);
+                }
+            });
+            Map<String, Collection<String>> headers = template.headers();
+            try (Response response = transport.execute(Request.create("POST", url, headers, null, null), options)) {
+                Assert.fail("expected the upload to fail, the server received "
+                        + Util.toString(response.body().asReader()) + " of " + UPLOAD_BYTES + " bytes");
+            } catch (IOException expected) {
+                // the consumed body is not sent again on a new connection
+            }
+        }
+    }
+
+    @Test
+    public void clientPerOptionsTest() {
+
+        OkHttpClient shared = TransportRegistry.shared();
+        OkHttpTransport transport = new OkHttpTransport(shared);
+        Request.Options noRedirects = new Request.Options(10_000, 60_000, false);
+
+        Assert.assertSame(shared, transport.client(new Request.Options()));
+        Assert.assertSame(transport.client(noRedirects), transport.client(new Request.Options(10_000, 60_000, false)));
+        Assert.assertFalse(transport.client(noRedirects).followRedirects());
+        Assert.assertSame(shared.connectionPool(), transport.client(noRedirects).connectionPool());
+        Assert.assertEquals(5_000, transport.client(new Request.Options(1_000, 5_000)).readTimeoutMillis());
+    }
+
+    /**
+     * Answers the first request with the body length it received, kills the connection in the middle of the second
+     * one and answers the requests of the next connections with their body length.
+     */
+    private static void serve(ServerSocket server) {
+        try {
+            boolean first = true;
+            while (true) {
+                try (Socket socket = server.accept()) {
+                    InputStream in = new BufferedInputStream(socket.getInputStream());
+                    OutputStream out = socket.getOutputStream();
+                    if (first) {
+                        first = false;
+                        respond(out, readRequest(in));
+                        readHeaders(in);
+                        in.read(new byte[1024]);
+                        socket.setSoLinger(true, 0);
+                    } else {
+                        respond(out, readRequest(in));
+                    }
+                }
+            }
+        } catch (IOException closed) { // NOPMD
+        }
+    }
+
+    private static void respond(OutputStream out, long received) throws IOException {
+        byte[] body = Long.toString(received).getBytes(StandardCharsets.UTF_8);
+        out.write(("HTTP/1.1 200 OK\r\nContent-Length: " + body.length + "\r\n\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        out.write(body);
+        out.flush();
+    }
+
+    private static long readRequest(InputStream in) throws IOException {
+        String headers = readHeaders(in).toLowerCase();
+        if (headers.contains("transfer-encoding: chunked")) {
+            long received = 0;
+            while (true) {
+                int size = Integer.parseInt(readLine(in).trim(), 16);
+                if (size == 0) {
+                    readLine(in);
+                    return received;
+                }
+                received += skip(in, size);
+                readLine(in);
+            }
+        }
+        int index = headers.indexOf("content-length:");
+        if (index < 0) {
+            return 0;
+        }
+        int end = headers.indexOf('\r', index);
+        return skip(in, Long.parseLong(headers.substring(index + "content-length:".length(), end).trim()));
+    }
+
+    private static String readHeaders(InputStream in) throws IOException {
+        StringBuilder headers = new StringBuilder();
+        String line;
+        while (!(line = readLine(in)).isEmpty()) {
+            headers.append(line).append("\r\n");
+        }
+        return headers.toString();
+    }
+
+    private static String readLine(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != '\n') {
+            if (b < 0) {
+                throw new IOException("connection closed");
+            }
+            if (b != '\r') {
+                line.write(b);
+            }
+        }
+        return new String(line.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static long skip(InputStream in, long bytes) throws IOException {
+        byte[] buffer = new byte[8192];
+        long left = bytes;
+        while (left > 0) {
+            int read = in.read(buffer, 0, (int) Math.min(buffer.length, left));
+            if (read < 0) {
+                throw new IOException("connection closed");
+            }
+            left -= read;
+        }
+        return bytes;
+    }
+}
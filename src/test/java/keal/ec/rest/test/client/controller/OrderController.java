@@ -4,14 +4,26 @@ package keal.ec.rest.test.client.controller;
 
 import keal.ec.rest.test.client.model.Order;
 import keal.ec.rest.test.client.model.OrderResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 @RestController
 @RequestMapping("/api")
 public class OrderController {
 
+    private final AtomicInteger flakyCalls = new AtomicInteger();
+
 
     @RequestMapping(value = "/order/", method = RequestMethod.POST, produces = "application/json")
     public OrderResponse processOrder(Order order) {
@@ -31,4 +43,39 @@ public class OrderController {
 
         return response;
     }
+
+    @RequestMapping(value = "/orders/batch/", method = RequestMethod.POST, produces = "application/json")
+    public List<OrderResponse> processOrders(@RequestBody List<Order> orders) {
+        List<OrderResponse> responses = new ArrayList<>();
+        for (Order order : orders) {
+            responses.add(new OrderResponse().
+                    returnCode(orders.size()).
+                    partnerId(order.getPartnerId()).
+                    returnCodeDesc("Todo Bien :)"));
+        }
+        return responses;
+    }
+
+    @RequestMapping(value = "/order/{id}", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<OrderResponse> findOrder(@PathVariable("id") Integer id) {
+        OrderResponse response = new OrderResponse().returnCode(1).workorderId(id).returnCodeDesc("Todo Bien :)");
+        return ResponseEntity.ok().
+                cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS)).
+                eTag("\"" + id + "\"").
+                body(response);
+    }
+
+    @RequestMapping(value = "/orders/upload/", method = RequestMethod.POST, produces = "application/json")
+    public OrderResponse uploadOrders(@RequestBody byte[] content) {
+        return new OrderResponse().returnCode(content.length).returnCodeDesc("Todo Bien :)");
+    }
+
+    @RequestMapping(value = "/orders/flaky/{failures}", method = RequestMethod.POST, produces = "application/json")
+    public ResponseEntity<OrderResponse> processFlakyOrder(@PathVariable("failures") Integer failures) {
+        if (flakyCalls.incrementAndGet() <= failures) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        flakyCalls.set(0);
+        return ResponseEntity.ok(new OrderResponse().returnCode(1).returnCodeDesc("Todo Bien :)"));
+    }
 }